@@ -1,13 +1,24 @@
 package com.leads.leadsgen.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.ScanReportSummary;
 import com.leads.leadsgen.repository.AssetRepository;
 import com.leads.leadsgen.repository.ScanReportRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,21 +26,164 @@ import java.util.List;
 @RequestMapping("/api")
 public class AssetController {
 
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final int MAX_LIMIT = 1000;
+
     private final AssetRepository assetRepository;
     private final ScanReportRepository scanReportRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    public AssetController(AssetRepository assetRepository, ScanReportRepository scanReportRepository) {
+    public AssetController(AssetRepository assetRepository, ScanReportRepository scanReportRepository, EntityManager entityManager, ObjectMapper objectMapper) {
         this.assetRepository = assetRepository;
         this.scanReportRepository = scanReportRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Get assets ordered by id. With a limit one page is returned and the X-Next-Cursor
+     * header holds the afterId of the next page, without one all assets are streamed.
+     * Clients accepting application/x-ndjson get all assets streamed one per line.
+     *
+     * @param accept  Accept header
+     * @param afterId Only assets with a greater id
+     * @param limit   Page size
+     * @param emailed Only assets that were or were not emailed
+     * @param partial Only assets that were or were not partially crawled
+     * @return Assets
+     */
     @GetMapping("/assets")
-    public ResponseEntity<List<Asset>> getAssets() {
-        return ResponseEntity.ok(assetRepository.findAll());
+    public ResponseEntity<StreamingResponseBody> getAssets(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Boolean emailed,
+            @RequestParam(required = false) Boolean partial) throws JsonProcessingException {
+        if (isNdjson(accept)) {
+            return ResponseEntity.ok().contentType(NDJSON).body(streamAssets(afterId, emailed, partial, true));
+        }
+        if (limit == null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamAssets(afterId, emailed, partial, false));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Asset> assets = assetRepository.findPage(afterId, emailed, partial, PageRequest.of(0, limit));
+        return page(assets, limit, assets.isEmpty() ? null : assets.getLast().getId());
     }
 
+    /**
+     * Get scan reports ordered by id. With a limit one page is returned and the
+     * X-Next-Cursor header holds the afterId of the next page, without one all reports
+     * are streamed. Clients accepting application/x-ndjson get all reports streamed one
+     * per line.
+     *
+     * @param accept  Accept header
+     * @param afterId Only reports with a greater id
+     * @param limit   Page size
+     * @param assetId Only reports of this asset
+     * @param scanner Only reports of this scanner
+     * @param flagged Only flagged or unflagged reports
+     * @return Scan reports
+     */
     @GetMapping("/reports")
-    public ResponseEntity<List<ScanReport>> getReports() {
-        return ResponseEntity.ok(scanReportRepository.findAll());
+    public ResponseEntity<StreamingResponseBody> getReports(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long assetId,
+            @RequestParam(required = false) String scanner,
+            @RequestParam(required = false) Boolean flagged) throws JsonProcessingException {
+        if (isNdjson(accept)) {
+            return ResponseEntity.ok().contentType(NDJSON).body(streamReports(afterId, assetId, scanner, flagged, true));
+        }
+        if (limit == null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamReports(afterId, assetId, scanner, flagged, false));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<ScanReport> reports = scanReportRepository.findPage(afterId, assetId, scanner, flagged, PageRequest.of(0, limit));
+        return page(reports, limit, reports.isEmpty() ? null : reports.getLast().getId());
+    }
+
+    /**
+     * Get scan reports without their report text, ordered by id. Paged and streamed like
+     * /reports.
+     *
+     * @param accept  Accept header
+     * @param afterId Only reports with a greater id
+     * @param limit   Page size
+     * @param assetId Only reports of this asset
+     * @param scanner Only reports of this scanner
+     * @param flagged Only flagged or unflagged reports
+     * @return Scan report summaries
+     */
+    @GetMapping("/reports/summary")
+    public ResponseEntity<StreamingResponseBody> getReportSummaries(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long assetId,
+            @RequestParam(required = false) String scanner,
+            @RequestParam(required = false) Boolean flagged) throws JsonProcessingException {
+        if (isNdjson(accept)) {
+            return ResponseEntity.ok().contentType(NDJSON).body(streamReportSummaries(afterId, assetId, scanner, flagged, true));
+        }
+        if (limit == null) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamReportSummaries(afterId, assetId, scanner, flagged, false));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<ScanReportSummary> summaries = scanReportRepository.findSummaryPage(afterId, assetId, scanner, flagged, PageRequest.of(0, limit));
+        return page(summaries, limit, summaries.isEmpty() ? null : summaries.getLast().id());
+    }
+
+    @GetMapping("/reports/{id}")
+    public ResponseEntity<ScanReport> getReport(@PathVariable Long id) {
+        return scanReportRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private StreamingResponseBody streamAssets(long afterId, Boolean emailed, Boolean partial, boolean ndjson) {
+        return KeysetStreamer.stream(objectMapper, entityManager, afterId, ndjson,
+                cursor -> assetRepository.findPage(cursor, emailed, partial, PageRequest.of(0, KeysetStreamer.CHUNK_SIZE)),
+                Asset::getId);
+    }
+
+    private StreamingResponseBody streamReports(long afterId, Long assetId, String scanner, Boolean flagged, boolean ndjson) {
+        return KeysetStreamer.stream(objectMapper, entityManager, afterId, ndjson,
+                cursor -> scanReportRepository.findPage(cursor, assetId, scanner, flagged, PageRequest.of(0, KeysetStreamer.CHUNK_SIZE)),
+                ScanReport::getId);
+    }
+
+    private StreamingResponseBody streamReportSummaries(long afterId, Long assetId, String scanner, Boolean flagged, boolean ndjson) {
+        return KeysetStreamer.stream(objectMapper, entityManager, afterId, ndjson,
+                cursor -> scanReportRepository.findSummaryPage(cursor, assetId, scanner, flagged, PageRequest.of(0, KeysetStreamer.CHUNK_SIZE)),
+                ScanReportSummary::id);
+    }
+
+    private boolean isNdjson(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(NDJSON::equalsTypeAndSubtype);
+    }
+
+    /**
+     * Respond with a page, pointing to the next page if this one is full
+     */
+    private <T> ResponseEntity<StreamingResponseBody> page(List<T> rows, int limit, Long lastId) throws JsonProcessingException {
+        byte[] body = objectMapper.writeValueAsBytes(rows);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (rows.size() == limit && lastId != null) {
+            response.header(NEXT_CURSOR, String.valueOf(lastId));
+        }
+        return response.body(outputStream -> outputStream.write(body));
     }
 }
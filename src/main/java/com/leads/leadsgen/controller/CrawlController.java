@@ -1,5 +1,6 @@
 package com.leads.leadsgen.controller;
 
+import com.leads.leadsgen.service.CrawlScheduler;
 import com.leads.leadsgen.service.CrawlService;
 import com.leads.leadsgen.service.SseService;
 import org.springframework.http.ResponseEntity;
@@ -24,10 +25,15 @@ public class CrawlController {
     @PostMapping("/crawl")
     public ResponseEntity<String> crawl(@RequestBody Map<String, List<String>> body) {
         List<String> domains = body.get("domains");
-        new Thread(() -> crawlService.crawlDomains(domains)).start();
+        crawlService.crawlDomains(domains);
         return ResponseEntity.ok("Crawl initialized for domains: " + domains);
     }
 
+    @GetMapping("/crawl-stats")
+    public ResponseEntity<CrawlScheduler.Stats> stats() {
+        return ResponseEntity.ok(crawlService.getStats());
+    }
+
     @GetMapping("/stream-crawl-status")
     public SseEmitter streamStatus() {
         return sseService.registerClient();
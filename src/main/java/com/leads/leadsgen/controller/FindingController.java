@@ -0,0 +1,47 @@
+package com.leads.leadsgen.controller;
+
+import com.leads.leadsgen.model.ScanFindingView;
+import com.leads.leadsgen.model.Severity;
+import com.leads.leadsgen.repository.ScanFindingRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class FindingController {
+
+    private static final int MAX_LIMIT = 10000;
+
+    private final ScanFindingRepository scanFindingRepository;
+
+    public FindingController(ScanFindingRepository scanFindingRepository) {
+        this.scanFindingRepository = scanFindingRepository;
+    }
+
+    /**
+     * Search the findings of all scans, e.g. every page missing a meta description
+     *
+     * @param checkId  Only findings of this check
+     * @param severity Only findings of this severity
+     * @param scanner  Only findings of this scanner
+     * @param limit    Maximum number of findings to return
+     * @return Matching findings, oldest first
+     */
+    @GetMapping("/findings")
+    public ResponseEntity<List<ScanFindingView>> getFindings(
+            @RequestParam(required = false) String checkId,
+            @RequestParam(required = false) Severity severity,
+            @RequestParam(required = false) String scanner,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(scanFindingRepository.search(checkId, severity, scanner, PageRequest.of(0, limit)));
+    }
+}
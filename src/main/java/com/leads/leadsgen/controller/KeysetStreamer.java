@@ -0,0 +1,70 @@
+package com.leads.leadsgen.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes the rows of a table to a response while they are read. Rows are loaded one keyset
+ * page at a time and detached once written, so memory use does not grow with the table.
+ */
+final class KeysetStreamer {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final byte[] NEWLINE = {'\n'};
+    private static final byte[] COMMA = {','};
+
+    private KeysetStreamer() {
+    }
+
+    /**
+     * Stream rows as a JSON array, or as one JSON document per line
+     *
+     * @param mapper        Mapper to serialize rows with
+     * @param entityManager Entity manager to clear after every page
+     * @param afterId       Only rows with a greater id
+     * @param ndjson        Write newline delimited JSON instead of an array
+     * @param page          Loads up to CHUNK_SIZE rows after an id, ordered by id
+     * @param id            Id of a row
+     * @return Response body
+     */
+    static <T> StreamingResponseBody stream(ObjectMapper mapper, EntityManager entityManager, long afterId, boolean ndjson,
+                                            LongFunction<List<T>> page, ToLongFunction<T> id) {
+        return outputStream -> {
+            if (!ndjson) {
+                outputStream.write('[');
+            }
+
+            long cursor = afterId;
+            boolean first = true;
+            List<T> rows;
+            do {
+                rows = page.apply(cursor);
+                for (T row : rows) {
+                    if (!ndjson && !first) {
+                        outputStream.write(COMMA);
+                    }
+                    outputStream.write(mapper.writeValueAsBytes(row));
+                    if (ndjson) {
+                        outputStream.write(NEWLINE);
+                    }
+                    first = false;
+                }
+                if (!rows.isEmpty()) {
+                    cursor = id.applyAsLong(rows.getLast());
+                }
+                outputStream.flush();
+                entityManager.clear();
+            } while (rows.size() == CHUNK_SIZE);
+
+            if (!ndjson) {
+                outputStream.write(']');
+            }
+        };
+    }
+}
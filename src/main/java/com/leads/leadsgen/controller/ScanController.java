@@ -22,10 +22,12 @@ public class ScanController {
     }
 
     @PostMapping("/scan")
-    public ResponseEntity<String> scan(@RequestBody Map<String, List<String>> body) {
+    public ResponseEntity<String> scan(
+            @RequestBody Map<String, List<String>> body,
+            @RequestParam(defaultValue = "false") boolean force) {
         List<String> domains = body.get("domains");
         List<String> scanners = body.get("scanners");
-        new Thread(() -> scanService.scanDomains(domains, scanners)).start();
+        new Thread(() -> scanService.scanDomains(domains, scanners, force)).start();
         return ResponseEntity.ok("Scan initialized for domains: " + domains);
     }
 
@@ -0,0 +1,20 @@
+package com.leads.leadsgen.exception;
+
+import java.io.IOException;
+
+/**
+ * The server answered a request with an error status
+ */
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode, String url) {
+        super("Server returned HTTP response code: " + statusCode + " for URL: " + url);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
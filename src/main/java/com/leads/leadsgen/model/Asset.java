@@ -1,15 +1,23 @@
 package com.leads.leadsgen.model;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.leads.leadsgen.service.AssetSnapshotListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Entity
+@EntityListeners(AssetSnapshotListener.class)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Asset {
 
     @Id
@@ -19,27 +27,58 @@ public class Asset {
     @Column(name = "domain", nullable = false, unique = true)
     private String domain;
 
-    @Column(name = "urls", columnDefinition = "TEXT")
-    private String urls;
+    // Scanners read these from detached assets, so they are loaded with the asset. A list of assets loads
+    // them by the ids of the loaded assets, up to 500 at a time, so limited queries only read their own rows
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "asset_url", joinColumns = @JoinColumn(name = "asset_id"))
+    @OrderColumn(name = "list_index")
+    @Column(name = "url", nullable = false, length = 2048)
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 500)
+    private List<String> urls = new ArrayList<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "asset_email", joinColumns = @JoinColumn(name = "asset_id"),
+            indexes = @Index(name = "idx_asset_email_domain", columnList = "domain"))
+    @OrderColumn(name = "list_index")
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 500)
+    private List<AssetEmail> emails = new ArrayList<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "asset_phone", joinColumns = @JoinColumn(name = "asset_id"))
+    @OrderColumn(name = "list_index")
+    @Column(name = "phone", nullable = false)
+    @Fetch(FetchMode.SELECT)
+    @BatchSize(size = 500)
+    private List<String> phones = new ArrayList<>();
 
-    @Column(name = "emails", columnDefinition = "TEXT")
-    private String emails;
+    @Transient
+    private List<String> emailAddresses;
 
-    @Column(name = "phones", columnDefinition = "TEXT")
-    private String phones;
+    @JsonIgnore
+    @OneToMany(mappedBy = "asset", cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
+    @OrderBy("scannedAt")
+    @BatchSize(size = 100)
+    private List<ScanHistory> scanHistory = new ArrayList<>();
 
-    @Column(name = "scanned_by", columnDefinition = "TEXT")
-    private String scannedByJson;
+    // Newest report of any scanner, denormalized so it can be found without searching the reports.
+    // Only written by AssetRepository.updateLastReportIds, saving a loaded asset must not put back a stale id
+    @Column(name = "last_report_id", insertable = false, updatable = false)
+    private Long lastReportId;
 
     @Column(name = "emailed")
     private boolean emailed;
 
-    @Transient
-    private List<Map<String, String>> scannedBy;
+    @Column(name = "partial")
+    private boolean partial;
 
     @Transient
     private Map<String, String> htmlContents;
 
+    @Transient
+    private Supplier<Map<String, String>> htmlContentsLoader;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -58,10 +97,17 @@ public class Asset {
             Map<String, String> htmlContents
     ) {
         this.domain = domain;
-        this.urls = String.join(",", urls);
-        this.emails = String.join(",", emails);
-        this.phones = String.join(",", phones);
-        this.scannedBy = scannedBy;
+        setUrls(urls);
+        setEmails(emails);
+        setPhones(phones);
+        if (scannedBy != null) {
+            for (Map<String, String> scan : scannedBy) {
+                if (scan.get("scanner") != null) {
+                    String datetime = scan.get("datetime");
+                    scanHistory.add(new ScanHistory(this, scan.get("scanner"), datetime != null ? LocalDateTime.parse(datetime) : LocalDateTime.now()));
+                }
+            }
+        }
         this.htmlContents = htmlContents;
         this.emailed = false;
     }
@@ -96,62 +142,79 @@ public class Asset {
     }
 
     public List<String> getUrls() {
-        if (urls != null) {
-            return List.of(urls.split(","));
-        }
-        return List.of();
+        return Collections.unmodifiableList(urls);
     }
 
     public void setUrls(List<String> sitemapUrls) {
-        this.urls = String.join(",", sitemapUrls);
+        replace(urls, sitemapUrls);
     }
 
     public List<String> getEmails() {
-        if (emails != null) {
-            return List.of(emails.split(","));
+        if (emailAddresses == null) {
+            emailAddresses = emails.stream().map(AssetEmail::getAddress).toList();
         }
-        return List.of();
+        return emailAddresses;
     }
 
     public void setEmails(List<String> emails) {
-        this.emails = String.join(",", emails);
+        List<AssetEmail> assetEmails = new ArrayList<>();
+        if (emails != null) {
+            for (String email : emails) {
+                if (email != null && !email.isBlank()) {
+                    assetEmails.add(new AssetEmail(email));
+                }
+            }
+        }
+        this.emails.clear();
+        this.emails.addAll(assetEmails);
+        this.emailAddresses = null;
     }
 
     public List<String> getPhones() {
-        if (phones != null) {
-            return List.of(phones.split(","));
-        }
-        return List.of();
+        return Collections.unmodifiableList(phones);
     }
 
     public void setPhones(List<String> phones) {
-        this.phones = String.join(",", phones);
+        replace(this.phones, phones);
     }
 
-    public List<Map<String, String>> getScannedBy() {
-        if (scannedBy == null && scannedByJson != null) {
-            ObjectMapper mapper = new ObjectMapper();
-            try {
-                scannedBy = mapper.readValue(scannedByJson, new TypeReference<List<Map<String, String>>>() {});
-            } catch (JsonProcessingException e) {
-                e.printStackTrace();
-                scannedBy = List.of();
+    /**
+     * Replace the values of a collection, dropping empty values
+     * @param target Collection to update
+     * @param values New values, may be the collection itself
+     */
+    private static void replace(List<String> target, List<String> values) {
+        List<String> copy = new ArrayList<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    copy.add(value);
+                }
             }
         }
-        return scannedBy;
+        target.clear();
+        target.addAll(copy);
     }
 
-    public void setScannedBy(List<Map<String, String>> scannedBy) {
-        this.scannedBy = scannedBy;
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            this.scannedByJson = mapper.writeValueAsString(scannedBy);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+    /**
+     * Get the scans of the asset, oldest first
+     * @return One entry with "scanner" and "datetime" per scan, or null if the asset was never scanned
+     */
+    public List<Map<String, String>> getScannedBy() {
+        if (scanHistory == null || scanHistory.isEmpty()) {
+            return null;
         }
+        return scanHistory.stream()
+                .map(scan -> Map.of("scanner", scan.getScanner(), "datetime", scan.getScannedAt().toString()))
+                .toList();
     }
 
+    @JsonIgnore
     public Map<String, String> getHtmlContents() {
+        if (htmlContents == null && htmlContentsLoader != null) {
+            htmlContents = htmlContentsLoader.get();
+            htmlContentsLoader = null;
+        }
         return htmlContents;
     }
 
@@ -159,6 +222,14 @@ public class Asset {
         this.htmlContents = htmlContents;
     }
 
+    /**
+     * Set a loader used to read the HTML contents the first time they are requested
+     * @param htmlContentsLoader Loader returning the HTML contents, or null if none are stored
+     */
+    public void setHtmlContentsLoader(Supplier<Map<String, String>> htmlContentsLoader) {
+        this.htmlContentsLoader = htmlContentsLoader;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -175,13 +246,16 @@ public class Asset {
                 ", urls=" + getUrls() +
                 ", emails=" + getEmails() +
                 ", phones=" + getPhones() +
-                ", scannedBy=" + getScannedBy() +
                 ", htmlContents=" + htmlContents +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
                 '}';
     }
 
+    public Long getLastReportId() {
+        return lastReportId;
+    }
+
     public boolean isEmailed() {
         return emailed;
     }
@@ -189,4 +263,12 @@ public class Asset {
     public void setEmailed(boolean emailed) {
         this.emailed = emailed;
     }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
 }
\ No newline at end of file
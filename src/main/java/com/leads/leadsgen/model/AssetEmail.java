@@ -0,0 +1,50 @@
+package com.leads.leadsgen.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Email address of an asset, stored with its domain so assets can be looked up by the
+ * domain of their emails
+ */
+@Embeddable
+public class AssetEmail {
+
+    @Column(name = "email", nullable = false, length = 320)
+    private String address;
+
+    @Column(name = "domain", nullable = false)
+    private String domain;
+
+    protected AssetEmail() {
+    }
+
+    public AssetEmail(String address) {
+        this.address = address;
+        int at = address.lastIndexOf('@');
+        this.domain = at >= 0 ? address.substring(at + 1).trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssetEmail that)) return false;
+        return Objects.equals(address, that.address);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(address);
+    }
+}
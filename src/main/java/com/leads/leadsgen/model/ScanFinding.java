@@ -0,0 +1,138 @@
+package com.leads.leadsgen.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "scan_finding", indexes = {
+        @Index(name = "idx_scan_finding_check", columnList = "check_id"),
+        @Index(name = "idx_scan_finding_severity", columnList = "severity"),
+        @Index(name = "idx_scan_finding_asset", columnList = "asset_id"),
+        @Index(name = "idx_scan_finding_report", columnList = "scan_report_id")
+})
+public class ScanFinding {
+
+    public static final int MAX_URL_LENGTH = 2048;
+    public static final int MAX_MESSAGE_LENGTH = 4096;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scan_finding_seq")
+    @SequenceGenerator(name = "scan_finding_seq", sequenceName = "scan_finding_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "scan_report_id", nullable = false)
+    private ScanReport report;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id", nullable = false)
+    private Asset asset;
+
+    @Column(name = "scanner")
+    private String scanner;
+
+    @Column(name = "url", length = MAX_URL_LENGTH)
+    private String url;
+
+    @Column(name = "check_id", nullable = false, length = 64)
+    private String checkId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "severity", nullable = false, length = 16)
+    private Severity severity;
+
+    @Column(name = "message", nullable = false, length = MAX_MESSAGE_LENGTH)
+    private String message;
+
+    @Column(name = "score_contribution", nullable = false)
+    private double scoreContribution;
+
+    protected ScanFinding() {
+    }
+
+    /**
+     * @param url               URL the finding applies to, or the domain for asset level findings
+     * @param checkId           Id of the check that produced the finding
+     * @param severity          Severity of the finding
+     * @param message           Human readable description, cut to the column length so one long
+     *                          message cannot fail the insert of the whole report
+     * @param scoreContribution Points the finding deducts from the report score
+     */
+    public ScanFinding(String url, String checkId, Severity severity, String message, double scoreContribution) {
+        this.url = truncate(url, MAX_URL_LENGTH);
+        this.checkId = checkId;
+        this.severity = severity;
+        this.message = truncate(message, MAX_MESSAGE_LENGTH);
+        this.scoreContribution = scoreContribution;
+    }
+
+    /**
+     * Copy the finding for another report
+     *
+     * @return Unsaved copy
+     */
+    public ScanFinding copy() {
+        return new ScanFinding(url, checkId, severity, message, scoreContribution);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength - 3) + "...";
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public ScanReport getReport() {
+        return report;
+    }
+
+    void setReport(ScanReport report) {
+        this.report = report;
+    }
+
+    public Asset getAsset() {
+        return asset;
+    }
+
+    void setAsset(Asset asset) {
+        this.asset = asset;
+    }
+
+    public String getScanner() {
+        return scanner;
+    }
+
+    void setScanner(String scanner) {
+        this.scanner = scanner;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getCheckId() {
+        return checkId;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public double getScoreContribution() {
+        return scoreContribution;
+    }
+
+    public void setScoreContribution(double scoreContribution) {
+        this.scoreContribution = scoreContribution;
+    }
+}
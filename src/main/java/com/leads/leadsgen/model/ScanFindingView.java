@@ -0,0 +1,15 @@
+package com.leads.leadsgen.model;
+
+/**
+ * Finding of a scan together with the domain and report it belongs to
+ */
+public record ScanFindingView(
+        Long reportId,
+        String domain,
+        String scanner,
+        String url,
+        String checkId,
+        Severity severity,
+        String message,
+        double scoreContribution) {
+}
@@ -0,0 +1,58 @@
+package com.leads.leadsgen.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One scan of an asset by a scanner. Rows are only ever inserted, so recording a scan is a
+ * single insert no matter how often the asset was scanned before.
+ */
+@Entity
+@Table(name = "scan_history", indexes = {
+        @Index(name = "idx_scan_history_asset", columnList = "asset_id, scanned_at")
+})
+public class ScanHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scan_history_seq")
+    @SequenceGenerator(name = "scan_history_seq", sequenceName = "scan_history_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "asset_id", nullable = false, updatable = false)
+    private Asset asset;
+
+    @Column(name = "scanner", nullable = false, updatable = false)
+    private String scanner;
+
+    @Column(name = "scanned_at", nullable = false, updatable = false)
+    private LocalDateTime scannedAt;
+
+    protected ScanHistory() {
+    }
+
+    public ScanHistory(Asset asset, String scanner, LocalDateTime scannedAt) {
+        this.asset = asset;
+        this.scanner = scanner;
+        this.scannedAt = scannedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Asset getAsset() {
+        return asset;
+    }
+
+    public String getScanner() {
+        return scanner;
+    }
+
+    public LocalDateTime getScannedAt() {
+        return scannedAt;
+    }
+}
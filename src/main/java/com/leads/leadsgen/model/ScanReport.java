@@ -1,30 +1,51 @@
 package com.leads.leadsgen.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Entity
+@Table(name = "scan_report", indexes = {
+        @Index(name = "idx_scan_report_asset_created", columnList = "asset_id, created_at"),
+        @Index(name = "idx_scan_report_asset_scanner_created", columnList = "asset_id, scanner, created_at")
+})
 public class ScanReport {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scan_report_seq")
+    @SequenceGenerator(name = "scan_report_seq", sequenceName = "scan_report_seq", allocationSize = 50)
     private Long id;
 
     @Lob
     @Column(name = "report", nullable = false, columnDefinition = "TEXT")
     private String report;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "asset_id", nullable = false)
     private Asset asset;
 
     @Column(name = "flagged", nullable = false)
     private boolean flagged;
 
+    @Column(name = "scanner")
+    private String scanner;
+
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "report", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    private List<ScanFinding> findings = new ArrayList<>();
+
     protected ScanReport() {
     }
 
@@ -60,6 +81,7 @@ public class ScanReport {
 
     public void setAsset(Asset asset) {
         this.asset = asset;
+        findings.forEach(finding -> finding.setAsset(asset));
     }
 
     public boolean isFlagged() {
@@ -70,10 +92,66 @@ public class ScanReport {
         this.flagged = flagged;
     }
 
+    public String getScanner() {
+        return scanner;
+    }
+
+    public void setScanner(String scanner) {
+        this.scanner = scanner;
+        findings.forEach(finding -> finding.setScanner(scanner));
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
 
+    public List<ScanFinding> getFindings() {
+        return findings;
+    }
+
+    /**
+     * Add a finding to the report
+     *
+     * @param finding Finding to add
+     */
+    public void addFinding(ScanFinding finding) {
+        finding.setReport(this);
+        finding.setAsset(asset);
+        finding.setScanner(scanner);
+        findings.add(finding);
+    }
+
+    /**
+     * Render findings as the issue list of a text report, grouped by URL in the order the
+     * URLs first appear
+     *
+     * @param findings Findings to render
+     * @return Issue list, one "URL:" line per URL followed by its issues
+     */
+    public static String renderFindings(List<ScanFinding> findings) {
+        Map<String, List<String>> issuesPerUrl = new LinkedHashMap<>();
+        for (ScanFinding finding : findings) {
+            issuesPerUrl.computeIfAbsent(finding.getUrl(), url -> new ArrayList<>()).add(finding.getMessage());
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : issuesPerUrl.entrySet()) {
+            text.append("URL: ").append(entry.getKey()).append("\n");
+            for (String issue : entry.getValue()) {
+                text.append(" - ").append(issue).append("\n");
+            }
+        }
+        return text.toString();
+    }
+
     @Override
     public String toString() {
         return "ScanReport{" +
@@ -81,6 +159,7 @@ public class ScanReport {
                 ", report='" + report + '\'' +
                 ", asset=" + (asset != null ? asset.getId() : null) +
                 ", flagged=" + flagged +
+                ", scanner='" + scanner + '\'' +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -0,0 +1,15 @@
+package com.leads.leadsgen.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scan report without its report text, for listings
+ */
+public record ScanReportSummary(
+        Long id,
+        Long assetId,
+        String domain,
+        String scanner,
+        boolean flagged,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.leads.leadsgen.model;
+
+public enum Severity {
+    INFO,
+    WARNING,
+    ERROR
+}
@@ -1,9 +1,19 @@
 package com.leads.leadsgen.repository;
 
 import com.leads.leadsgen.model.Asset;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +21,26 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
 
     Optional<Asset> findByDomain(String domain);
 
+    List<Asset> findByDomainIn(Collection<String> domains);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Asset a WHERE a.id > :afterId " +
+            "AND (:emailed IS NULL OR a.emailed = :emailed) " +
+            "AND (:partial IS NULL OR a.partial = :partial) " +
+            "ORDER BY a.id")
+    List<Asset> findPage(@Param("afterId") long afterId,
+                         @Param("emailed") Boolean emailed,
+                         @Param("partial") Boolean partial,
+                         Pageable pageable);
+
+    // Point each asset to its newest report
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Asset a SET a.lastReportId = (SELECT MAX(sr.id) FROM ScanReport sr WHERE sr.asset.id = a.id) WHERE a.id IN :ids")
+    int updateLastReportIds(@Param("ids") Collection<Long> ids);
+
+    // Assets with an email on their own domain, with or without www.
+    @Query("SELECT DISTINCT a FROM Asset a JOIN a.emails e WHERE e.domain = a.domain OR CONCAT('www.', e.domain) = a.domain")
+    List<Asset> findWithOwnDomainEmail();
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.leads.leadsgen.repository;
+
+import com.leads.leadsgen.model.PageValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PageValidatorRepository extends JpaRepository<PageValidator, Long> {
+
+    List<PageValidator> findByAssetId(Long assetId);
+
+}
@@ -0,0 +1,30 @@
+package com.leads.leadsgen.repository;
+
+import com.leads.leadsgen.model.ScanFinding;
+import com.leads.leadsgen.model.ScanFindingView;
+import com.leads.leadsgen.model.Severity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScanFindingRepository extends JpaRepository<ScanFinding, Long> {
+
+    List<ScanFinding> findByReportIdOrderByIdAsc(Long reportId);
+
+    @Query("SELECT new com.leads.leadsgen.model.ScanFindingView(f.report.id, f.asset.domain, f.scanner, f.url, f.checkId, f.severity, f.message, f.scoreContribution) " +
+            "FROM ScanFinding f " +
+            "WHERE (:checkId IS NULL OR f.checkId = :checkId) " +
+            "AND (:severity IS NULL OR f.severity = :severity) " +
+            "AND (:scanner IS NULL OR f.scanner = :scanner) " +
+            "ORDER BY f.id")
+    List<ScanFindingView> search(@Param("checkId") String checkId,
+                                 @Param("severity") Severity severity,
+                                 @Param("scanner") String scanner,
+                                 Pageable pageable);
+
+}
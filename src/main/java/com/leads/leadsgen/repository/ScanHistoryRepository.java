@@ -0,0 +1,10 @@
+package com.leads.leadsgen.repository;
+
+import com.leads.leadsgen.model.ScanHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScanHistoryRepository extends JpaRepository<ScanHistory, Long> {
+
+}
@@ -1,17 +1,61 @@
 package com.leads.leadsgen.repository;
 
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.ScanReportSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ScanReportRepository extends JpaRepository<ScanReport, Long> {
 
-    @Query("SELECT sr FROM ScanReport sr WHERE sr.asset.domain = :domain")
-    Optional<ScanReport> findByAssetDomain(@Param("domain") String domain);
+    // Latest report of the asset with this domain
+    default Optional<ScanReport> findByAssetDomain(String domain) {
+        return findFirstByAssetDomainOrderByCreatedAtDesc(domain);
+    }
+
+    Optional<ScanReport> findFirstByAssetDomainOrderByCreatedAtDesc(String domain);
+
+    Optional<ScanReport> findFirstByAssetIdAndScannerOrderByCreatedAtDesc(Long assetId, String scanner);
+
+    // Latest report of every scanner for each of the assets
+    @Query("SELECT new com.leads.leadsgen.model.ScanReportSummary(sr.id, a.id, a.domain, sr.scanner, sr.flagged, sr.createdAt) " +
+            "FROM ScanReport sr JOIN sr.asset a WHERE a.id IN :assetIds " +
+            "AND sr.createdAt = (SELECT MAX(latest.createdAt) FROM ScanReport latest WHERE latest.asset = sr.asset AND latest.scanner = sr.scanner) " +
+            "ORDER BY a.id, sr.scanner")
+    List<ScanReportSummary> findLatestByAssetIds(@Param("assetIds") Collection<Long> assetIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT sr FROM ScanReport sr JOIN FETCH sr.asset WHERE sr.id > :afterId " +
+            "AND (:assetId IS NULL OR sr.asset.id = :assetId) " +
+            "AND (:scanner IS NULL OR sr.scanner = :scanner) " +
+            "AND (:flagged IS NULL OR sr.flagged = :flagged) " +
+            "ORDER BY sr.id")
+    List<ScanReport> findPage(@Param("afterId") long afterId,
+                              @Param("assetId") Long assetId,
+                              @Param("scanner") String scanner,
+                              @Param("flagged") Boolean flagged,
+                              Pageable pageable);
+
+    @Query("SELECT new com.leads.leadsgen.model.ScanReportSummary(sr.id, a.id, a.domain, sr.scanner, sr.flagged, sr.createdAt) " +
+            "FROM ScanReport sr JOIN sr.asset a WHERE sr.id > :afterId " +
+            "AND (:assetId IS NULL OR a.id = :assetId) " +
+            "AND (:scanner IS NULL OR sr.scanner = :scanner) " +
+            "AND (:flagged IS NULL OR sr.flagged = :flagged) " +
+            "ORDER BY sr.id")
+    List<ScanReportSummary> findSummaryPage(@Param("afterId") long afterId,
+                                            @Param("assetId") Long assetId,
+                                            @Param("scanner") String scanner,
+                                            @Param("flagged") Boolean flagged,
+                                            Pageable pageable);
 
 }
@@ -1,7 +1,160 @@
 package com.leads.leadsgen.scanner;
 
-public class DnsScanner {
-    public DnsScanner() throws Exception {
-        throw new Exception("Not implemented yet");
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.service.dns.DnsResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+public class DnsScanner extends Scanner {
+
+    private final DnsResolver dnsResolver;
+
+    // Upper bound on one lookup, above the resolver's own timeout times its attempts
+    @Value("${dns.scanner.lookup-timeout-ms:10000}")
+    private long lookupTimeoutMs = 10000;
+
+    public DnsScanner(DnsResolver dnsResolver) {
+        super("DnsScanner");
+        this.dnsResolver = dnsResolver;
+    }
+
+    /**
+     * DNS records change independently of the crawled pages, so DNS scans always run
+     *
+     * @param asset Asset to scan
+     * @return Null
+     */
+    @Override
+    public String fingerprint(Asset asset) {
+        return null;
+    }
+
+    /**
+     * Check that the domain of an asset can receive mail and protects its sender address
+     * with SPF and DMARC, and that the domains of its scraped emails can receive mail.
+     * All lookups are sent at once.
+     *
+     * @param asset Asset to scan
+     * @return Scan report, flagged if MX, SPF or DMARC is missing or an email domain has no MX
+     */
+    @Override
+    public ScanReport scan(Asset asset) {
+        String domain = getMailDomain(asset.getDomain());
+
+        System.out.println("Scanning DNS for: " + domain);
+
+        CompletableFuture<List<String>> mx = dnsResolver.lookupMx(domain);
+        CompletableFuture<List<String>> txt = dnsResolver.lookupTxt(domain);
+        CompletableFuture<List<String>> dmarc = dnsResolver.lookupTxt("_dmarc." + domain);
+
+        Map<String, CompletableFuture<List<String>>> emailDomainMx = new TreeMap<>();
+        for (String email : asset.getEmails()) {
+            int at = email.lastIndexOf('@');
+            if (at < 0) {
+                continue;
+            }
+            String emailDomain = email.substring(at + 1).trim().toLowerCase(Locale.ROOT);
+            if (!emailDomain.isEmpty() && !emailDomain.equals(domain)) {
+                emailDomainMx.computeIfAbsent(emailDomain, dnsResolver::lookupMx);
+            }
+        }
+
+        StringBuilder reportBuilder = new StringBuilder();
+        boolean flagged = false;
+
+        reportBuilder.append("DNS Report for: ").append(domain).append("\n");
+        reportBuilder.append("=============================================================\n");
+
+        Lookup mxResult = await(mx);
+        flagged |= appendLine(reportBuilder, "MX", mxResult, mxResult.records().stream().filter(DnsScanner::acceptsMail).toList(),
+                "Missing, the domain cannot receive mail");
+
+        Lookup spfResult = await(txt);
+        flagged |= appendLine(reportBuilder, "SPF", spfResult, filterPrefix(spfResult.records(), "v=spf1"),
+                "Missing, anyone can send mail as this domain");
+
+        Lookup dmarcResult = await(dmarc);
+        flagged |= appendLine(reportBuilder, "DMARC", dmarcResult, filterPrefix(dmarcResult.records(), "v=DMARC1"),
+                "Missing, receivers have no policy for spoofed mail");
+
+        if (!emailDomainMx.isEmpty()) {
+            reportBuilder.append("\nEmail domains:\n");
+            for (Map.Entry<String, CompletableFuture<List<String>>> entry : emailDomainMx.entrySet()) {
+                Lookup emailMxResult = await(entry.getValue());
+                reportBuilder.append(" - ");
+                flagged |= appendLine(reportBuilder, entry.getKey(), emailMxResult,
+                        emailMxResult.records().stream().filter(DnsScanner::acceptsMail).toList(),
+                        "No MX records, emails to this domain will bounce");
+            }
+        }
+
+        System.out.println("DNS scan complete for: " + domain);
+
+        return new ScanReport(reportBuilder.toString(), asset, flagged);
+    }
+
+    /**
+     * Append the result of a lookup to the report
+     *
+     * @return True if the records are missing
+     */
+    private boolean appendLine(StringBuilder reportBuilder, String label, Lookup lookup, List<String> records, String missing) {
+        reportBuilder.append(label).append(": ");
+        if (lookup.error() != null) {
+            reportBuilder.append("Lookup failed (").append(lookup.error()).append(")\n");
+            return false;
+        }
+        if (records.isEmpty()) {
+            reportBuilder.append(missing).append("\n");
+            return true;
+        }
+        reportBuilder.append(String.join(", ", records)).append("\n");
+        return false;
+    }
+
+    private Lookup await(CompletableFuture<List<String>> lookup) {
+        try {
+            return new Lookup(lookup.get(lookupTimeoutMs, TimeUnit.MILLISECONDS), null);
+        } catch (ExecutionException e) {
+            return new Lookup(List.of(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (TimeoutException e) {
+            return new Lookup(List.of(), "Lookup timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Lookup(List.of(), "Interrupted");
+        }
+    }
+
+    private static List<String> filterPrefix(List<String> records, String prefix) {
+        return records.stream().filter(record -> record.regionMatches(true, 0, prefix, 0, prefix.length())).toList();
+    }
+
+    /**
+     * A null MX (RFC 7505) announces that the domain accepts no mail
+     */
+    private static boolean acceptsMail(String exchange) {
+        return !exchange.isEmpty() && !exchange.equals(".");
+    }
+
+    /**
+     * Get the domain mail is sent from, dropping a leading www.
+     *
+     * @param domain Domain of the asset
+     * @return Mail domain
+     */
+    private static String getMailDomain(String domain) {
+        String lower = domain.toLowerCase(Locale.ROOT);
+        return lower.startsWith("www.") ? lower.substring(4) : lower;
+    }
+
+    private record Lookup(List<String> records, String error) {
     }
 }
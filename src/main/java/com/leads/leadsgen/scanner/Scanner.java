@@ -2,6 +2,11 @@ package com.leads.leadsgen.scanner;
 
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.util.HashUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public abstract class Scanner {
 
@@ -18,6 +23,16 @@ public abstract class Scanner {
      */
     public abstract ScanReport scan(Asset asset);
 
+    /**
+     * Returns a fingerprint of everything a scan of the given asset depends on. When it
+     * matches the fingerprint of the previous report, that report can be reused.
+     * @param asset The asset to scan.
+     * @return The fingerprint, or null if the scan must always run.
+     */
+    public String fingerprint(Asset asset) {
+        return null;
+    }
+
     /**
      * Returns the name of the scanner.
      * @return The name of the scanner.
@@ -25,4 +40,26 @@ public abstract class Scanner {
     public String getName() {
         return name;
     }
+
+    /**
+     * Fingerprints the crawled pages and sitemap of an asset together with a scanner version.
+     * @param asset The asset to fingerprint.
+     * @param version Version of the scanner, to be changed whenever its checks change.
+     * @return The fingerprint, or null if the asset has no stored pages.
+     */
+    protected static String contentFingerprint(Asset asset, String version) {
+        Map<String, String> htmlContents = asset.getHtmlContents();
+        if (htmlContents == null || htmlContents.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder inputs = new StringBuilder(version).append('\n');
+        Map<String, String> pages = new TreeMap<>();
+        htmlContents.forEach((url, html) -> pages.put(url, html != null ? HashUtils.sha256(html) : ""));
+        pages.forEach((url, contentHash) -> inputs.append(url).append(' ').append(contentHash).append('\n'));
+
+        List<String> sitemapUrls = asset.getUrls().stream().sorted().toList();
+        inputs.append(String.join("\n", sitemapUrls));
+        return HashUtils.sha256(inputs.toString());
+    }
 }
@@ -0,0 +1,51 @@
+package com.leads.leadsgen.scanner;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of all Scanner beans by their name. A new scanner is picked up by declaring it
+ * as a bean, nothing else needs to know about it.
+ */
+@Component
+public class ScannerRegistry {
+
+    private final Map<String, Scanner> scanners = new LinkedHashMap<>();
+
+    public ScannerRegistry(List<Scanner> scanners) {
+        for (Scanner scanner : scanners) {
+            Scanner existing = this.scanners.putIfAbsent(scanner.getName(), scanner);
+            if (existing != null) {
+                throw new IllegalStateException("Duplicate scanner name: " + scanner.getName());
+            }
+        }
+    }
+
+    /**
+     * Get a scanner by name
+     *
+     * @param name Name of the scanner
+     * @return Scanner
+     * @throws IllegalArgumentException If no scanner has the name
+     */
+    public Scanner get(String name) {
+        Scanner scanner = scanners.get(name);
+        if (scanner == null) {
+            throw new IllegalArgumentException("Invalid scanner: " + name);
+        }
+        return scanner;
+    }
+
+    /**
+     * Get the names of all registered scanners
+     *
+     * @return Set of scanner names
+     */
+    public Set<String> getNames() {
+        return scanners.keySet();
+    }
+}
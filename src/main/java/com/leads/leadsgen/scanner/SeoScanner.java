@@ -1,25 +1,40 @@
 package com.leads.leadsgen.scanner;
 
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanFinding;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.Severity;
+import com.leads.leadsgen.scanner.html.HtmlTokenizer;
+import com.leads.leadsgen.scanner.seo.*;
 import com.leads.leadsgen.service.CrawlService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.leads.leadsgen.service.LinkCheckService;
+import com.leads.leadsgen.service.RobotsRules;
+import com.leads.leadsgen.service.RobotsService;
+import com.leads.leadsgen.util.UrlUtils;
 import org.springframework.stereotype.Component;
 
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Component
 public class SeoScanner extends Scanner {
 
-    @Autowired
-    private CrawlService crawlService;
+    // Change whenever the checks change so older reports are not reused
+    private static final String VERSION = "SeoScanner/2";
 
-    public SeoScanner() {
+    private final CrawlService crawlService;
+    private final RobotsService robotsService;
+    private final LinkCheckService linkCheckService;
+
+    public SeoScanner(CrawlService crawlService, RobotsService robotsService, LinkCheckService linkCheckService) {
         super("SeoScanner");
+        this.crawlService = crawlService;
+        this.robotsService = robotsService;
+        this.linkCheckService = linkCheckService;
+    }
+
+    @Override
+    public String fingerprint(Asset asset) {
+        return contentFingerprint(asset, VERSION);
     }
 
     /**
@@ -34,25 +49,14 @@ public class SeoScanner extends Scanner {
         System.out.println("Scanning SEO for: " + asset.getDomain());
 
         StringBuilder reportBuilder = new StringBuilder();
-        Map<String, List<String>> issuesPerUrl = new HashMap<>();
+        List<ScanFinding> findings = new ArrayList<>();
         int totalChecks = 0;
         int wellOptimizedChecks = 0;
 
         reportBuilder.append("SEO Report for: ").append(asset.getDomain()).append("\n");
         reportBuilder.append("=============================================================\n");
 
-        // Check for broken links
-        List<String> brokenLinks = checkBrokenLinksInSitemap(asset.getUrls());
-        if (!brokenLinks.isEmpty()) {
-            totalChecks += brokenLinks.size();
-            for (String brokenLink : brokenLinks) {
-                issuesPerUrl.put(brokenLink, Collections.singletonList("Broken link in sitemap"));
-            }
-        }
-
-        System.out.println("Scanning HTML content...");
-        System.out.println(asset.getHtmlContents());
-
+        // Assets loaded from the database read their HTML from the page snapshot store, only crawl if none is stored
         if (asset.getHtmlContents() == null) {
             try {
                 Asset updatedAsset = crawlService.crawl("https://" + asset.getDomain());
@@ -63,51 +67,66 @@ public class SeoScanner extends Scanner {
             }
         }
 
-        // Scan HTML content
+        System.out.println("Scanning HTML content...");
+        System.out.println(asset.getHtmlContents());
+
+        // Read every page once, the checks collect the links to verify
+        Map<String, Boolean> linkResults = new HashMap<>();
+        Map<String, List<SeoCheck>> checksPerUrl = new LinkedHashMap<>();
         for (String url : asset.getHtmlContents().keySet()) {
-                String htmlContent = asset.getHtmlContents().get(url);
+            String htmlContent = asset.getHtmlContents().get(url);
+            if (htmlContent != null) {
+                checksPerUrl.put(url, scanHtmlContent(htmlContent, linkResults));
+            }
+        }
 
+        // Verify the links of the sitemap and all pages together
+        List<String> sitemapUrls = asset.getUrls() != null ? asset.getUrls() : List.of();
+        checkLinks(sitemapUrls, checksPerUrl.values(), asset.getHtmlContents().keySet(), linkResults);
 
-                if (htmlContent != null) {
-                    List<String> urlIssues = new ArrayList<>();
-                    int[] result = scanHtmlContent(htmlContent, urlIssues, url);
-                    totalChecks += result[0];
-                    wellOptimizedChecks += result[1];
+        // Check for broken links
+        List<String> brokenLinks = sitemapUrls.stream().filter(url -> isLinkBroken(url, linkResults)).toList();
+        if (!brokenLinks.isEmpty()) {
+            totalChecks += brokenLinks.size();
+            for (String brokenLink : brokenLinks) {
+                findings.add(new ScanFinding(brokenLink, "sitemap-broken-link", Severity.ERROR, "Broken link in sitemap", 0));
+            }
+        }
 
-                    if (!urlIssues.isEmpty()) {
-                        issuesPerUrl.put(url, urlIssues);
-                    }
+        for (Map.Entry<String, List<SeoCheck>> entry : checksPerUrl.entrySet()) {
+            for (SeoCheck check : entry.getValue()) {
+                List<String> checkIssues = new ArrayList<>();
+                int[] result = check.finish(checkIssues);
+                totalChecks += result[0];
+                wellOptimizedChecks += result[1];
 
+                for (String issue : checkIssues) {
+                    findings.add(new ScanFinding(entry.getKey(), check.getId(), check.getSeverity(), issue, 0));
                 }
+            }
         }
 
         System.out.println("Scanning asset level issues...");
 
         // Check for missing files like robots.txt and sitemap.xml
-        List<String> assetLevelIssues = new ArrayList<>();
-        int[] assetChecks = checkMissingFiles(asset, assetLevelIssues);
+        int[] assetChecks = checkMissingFiles(asset, findings);
         totalChecks += assetChecks[0];
         wellOptimizedChecks += assetChecks[1];
 
-        if (!assetLevelIssues.isEmpty()) {
-            issuesPerUrl.put(asset.getDomain(), assetLevelIssues);
-        }
-
         System.out.println("Calculating score...");
 
         int totalScore = calculateScore(totalChecks, wellOptimizedChecks);
 
+        // Every finding is one failed check
+        for (ScanFinding finding : findings) {
+            finding.setScoreContribution(100.0 / totalChecks);
+        }
+
         reportBuilder.append("Total Score: ").append(totalScore).append("/100").append("\n\n");
 
-        if (!issuesPerUrl.isEmpty()) {
-            System.out.println(issuesPerUrl);
+        if (!findings.isEmpty()) {
             reportBuilder.append("Issues to fix:\n");
-            for (Map.Entry<String, List<String>> entry : issuesPerUrl.entrySet()) {
-                reportBuilder.append("URL: ").append(entry.getKey()).append("\n");
-                for (String issue : entry.getValue()) {
-                    reportBuilder.append(" - ").append(issue).append("\n");
-                }
-            }
+            reportBuilder.append(ScanReport.renderFindings(findings));
         } else {
             reportBuilder.append("No issues found. The SEO is perfect!\n");
         }
@@ -116,89 +135,71 @@ public class SeoScanner extends Scanner {
 
         System.out.println("SEO scan complete for: " + asset.getDomain());
 
-        return new ScanReport(reportBuilder.toString(), asset, flagged);
+        ScanReport report = new ScanReport(reportBuilder.toString(), asset, flagged);
+        findings.forEach(report::addFinding);
+        return report;
     }
 
     /**
-     * Scan the HTML content of a page
+     * Scan the HTML content of a page. The page is tokenized once and every check
+     * receives its tokens in the same pass. The checks are finished once the links of
+     * all pages have been verified.
      *
      * @param htmlContent HTML content to scan
-     * @param issues      List to store issues
-     * @param url         URL of the page
-     * @return Array containing total checks and well optimized checks
+     * @param linkResults Link check results of the scan, keyed by normalized URL
+     * @return Checks of the page, in the order their issues are reported
      */
-    private int[] scanHtmlContent(String htmlContent, List<String> issues, String url) {
-        int totalChecks = 0;
-        int wellOptimizedChecks = 0;
-
-        int[] result = checkTitleTag(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkMetaDescription(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkHeadingTags(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkImageAltTags(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkSchemaMarkup(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkOpenGraphTags(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkTwitterCardTags(htmlContent, issues);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        result = checkBrokenLinksInHtml(htmlContent, issues, url);
-        totalChecks += result[0];
-        wellOptimizedChecks += result[1];
-
-        return new int[]{totalChecks, wellOptimizedChecks};
+    private List<SeoCheck> scanHtmlContent(String htmlContent, Map<String, Boolean> linkResults) {
+        List<SeoCheck> checks = List.of(
+                new TitleCheck(),
+                new MetaDescriptionCheck(),
+                new HeadingCheck(),
+                new ImageAltCheck(),
+                new SchemaMarkupCheck(),
+                new OpenGraphCheck(),
+                new TwitterCardCheck(),
+                new BrokenLinkCheck(link -> isLinkBroken(link, linkResults))
+        );
+        HtmlTokenizer.tokenize(htmlContent, checks);
+        return checks;
     }
 
     /**
-     * Check for broken links in the sitemap
+     * Verify the sitemap URLs and the links found in the pages. Each distinct link is
+     * checked once, crawled pages are known to be reachable and are not checked.
      *
-     * @param sitemapUrls List of URLs in the sitemap
-     * @return List of broken links
+     * @param sitemapUrls  URLs in the sitemap
+     * @param pageChecks   Checks of every page
+     * @param crawledUrls  URLs of the crawled pages
+     * @param linkResults  Map to store link check results, keyed by normalized URL
      */
-    private List<String> checkBrokenLinksInSitemap(List<String> sitemapUrls) {
-        List<String> brokenLinks = new ArrayList<>();
-        for (String url : sitemapUrls) {
-            if (isLinkBroken(url)) {
-                brokenLinks.add(url);
+    private void checkLinks(List<String> sitemapUrls, Collection<List<SeoCheck>> pageChecks, Collection<String> crawledUrls, Map<String, Boolean> linkResults) {
+        for (String crawledUrl : crawledUrls) {
+            linkResults.put(UrlUtils.normalize(crawledUrl), false);
+        }
+
+        Set<String> links = new LinkedHashSet<>(sitemapUrls);
+        for (List<SeoCheck> checks : pageChecks) {
+            for (SeoCheck check : checks) {
+                if (check instanceof BrokenLinkCheck brokenLinkCheck) {
+                    links.addAll(brokenLinkCheck.getLinks());
+                }
             }
         }
-        return brokenLinks;
+        links.removeIf(link -> linkResults.containsKey(UrlUtils.normalize(link)));
+
+        linkResults.putAll(linkCheckService.checkAll(links));
     }
 
     /**
-     * Check if a link is broken
+     * Look up whether a link is broken
      *
-     * @param url URL to check
+     * @param url         URL to look up
+     * @param linkResults Link check results of the scan, keyed by normalized URL
      * @return True if the link is broken, false otherwise
      */
-    private boolean isLinkBroken(String url) {
-        try {
-            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-            connection.setRequestMethod("HEAD");
-            connection.setConnectTimeout(5000);
-            connection.setReadTimeout(5000);
-            int responseCode = connection.getResponseCode();
-            return responseCode >= 400;
-        } catch (Exception e) {
-            return true;
-        }
+    private boolean isLinkBroken(String url, Map<String, Boolean> linkResults) {
+        return linkResults.getOrDefault(UrlUtils.normalize(url), false);
     }
 
     /**
@@ -218,244 +219,31 @@ public class SeoScanner extends Scanner {
     /**
      * Check for missing files like robots.txt and sitemap.xml
      *
-     * @param asset  Asset to check
-     * @param issues List to store issues
+     * @param asset    Asset to check
+     * @param findings List to store findings
      * @return Array containing total checks and well optimized checks
      */
-    private int[] checkMissingFiles(Asset asset, List<String> issues) {
+    private int[] checkMissingFiles(Asset asset, List<ScanFinding> findings) {
         int totalChecks = 2; // sitemap.xml & robots.txt
         int wellOptimizedChecks = 0;
 
         if (asset.getUrls() != null && !asset.getUrls().isEmpty()) {
             wellOptimizedChecks++;
         } else {
-            issues.add("Missing sitemap.xml");
-        }
-
-        if (asset.getUrls() != null && !asset.getUrls().isEmpty()) {
-            wellOptimizedChecks++;
-        } else {
-            issues.add("Missing robots.txt");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check the title tag of a page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkTitleTag(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        String titleRegex = "<title>(.*?)</title>";
-        Matcher matcher = Pattern.compile(titleRegex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(html);
-
-        if (matcher.find()) {
-            String title = matcher.group(1).trim();
-            if (title.length() >= 10 && title.length() <= 70) {
-                wellOptimizedChecks++;
-            } else if (title.length() < 10) {
-                issues.add("Title tag too short (less than 10 characters)");
-            } else if (title.length() > 70) {
-                issues.add("Title tag too long (more than 70 characters)");
-            }
-        } else {
-            issues.add("Missing title tag");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check the meta description of a page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkMetaDescription(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        String metaDescriptionRegex = "<meta\\s+(?:[a-zA-Z-]+=[\"'].*?[\"']\\s+)*name=[\"']description[\"']\\s+content=[\"'](.*?)[\"'].*?>";
-        Matcher matcher = Pattern.compile(metaDescriptionRegex, Pattern.CASE_INSENSITIVE).matcher(html);
-
-        if (matcher.find()) {
-            String metaDescription = matcher.group(1).trim();
-            if (metaDescription.length() >= 50 && metaDescription.length() <= 160) {
-                wellOptimizedChecks++;
-            } else if (metaDescription.length() < 50) {
-                issues.add("Meta description too short (less than 50 characters)");
-            } else if (metaDescription.length() > 160) {
-                issues.add("Meta description too long (more than 160 characters)");
-            }
-        } else {
-            issues.add("Missing meta description");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check the heading tags of a page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkHeadingTags(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        String h1Regex = "<h1[^>]*>(.*?)</h1>";
-        Matcher matcher = Pattern.compile(h1Regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(html);
-
-        if (matcher.find()) {
-            String h1Text = matcher.group(1).trim();
-            if (!h1Text.isEmpty() && h1Text.length() <= 70) {
-                wellOptimizedChecks++;
-            } else if (h1Text.length() > 70) {
-                issues.add("H1 tag too long (more than 70 characters)");
-            }
-        } else {
-            issues.add("Missing H1 tag");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check the alt tags of images in the page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkImageAltTags(String html, List<String> issues) {
-        int totalChecks = 0;
-        int wellOptimizedChecks = 0;
-
-        String imgRegex = "<img[^>]*>";
-        Matcher matcher = Pattern.compile(imgRegex, Pattern.CASE_INSENSITIVE).matcher(html);
-
-        while (matcher.find()) {
-            totalChecks++;
-            String imgTag = matcher.group();
-            if (!imgTag.contains("alt=")) {
-                issues.add("Missing alt attribute in img tag: " + imgTag);
-            } else {
-                String altRegex = "alt=[\"'](.*?)[\"']";
-                Matcher altMatcher = Pattern.compile(altRegex, Pattern.CASE_INSENSITIVE).matcher(imgTag);
-                if (altMatcher.find()) {
-                    String altText = altMatcher.group(1).trim();
-                    if (altText.length() <= 100) {
-                        wellOptimizedChecks++;
-                    } else {
-                        issues.add("Alt attribute too long (more than 100 characters): " + altText);
-                    }
-                }
-            }
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check for schema.org markup in the page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkSchemaMarkup(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        if (html.toLowerCase().contains("schema.org")) {
-            wellOptimizedChecks++;
-        } else {
-            issues.add("Missing schema.org markup");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check for Open Graph tags in the page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkOpenGraphTags(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        String ogTagRegex = "<meta\\s+property=[\"']og:";
-        Matcher matcher = Pattern.compile(ogTagRegex, Pattern.CASE_INSENSITIVE).matcher(html);
-
-        if (matcher.find()) {
-            wellOptimizedChecks++;
-        } else {
-            issues.add("Missing Open Graph markup");
+            findings.add(new ScanFinding(asset.getDomain(), "sitemap", Severity.WARNING, "Missing sitemap.xml", 0));
         }
 
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check for Twitter Card tags in the page
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkTwitterCardTags(String html, List<String> issues) {
-        int totalChecks = 1;
-        int wellOptimizedChecks = 0;
-
-        String twitterCardRegex = "<meta\\s+name=[\"']twitter:";
-        Matcher matcher = Pattern.compile(twitterCardRegex, Pattern.CASE_INSENSITIVE).matcher(html);
-
-        if (matcher.find()) {
+        RobotsRules robotsRules = robotsService.getRules("https://" + asset.getDomain());
+        if (robotsRules.isPresent()) {
             wellOptimizedChecks++;
+        } else if (robotsRules.isReachable()) {
+            findings.add(new ScanFinding(asset.getDomain(), "robots-txt", Severity.WARNING, "Missing robots.txt", 0));
         } else {
-            issues.add("Missing Twitter Card markup");
-        }
-
-        return new int[]{totalChecks, wellOptimizedChecks};
-    }
-
-    /**
-     * Check for broken links in the HTML content
-     *
-     * @param html   HTML content of the page
-     * @param issues List to store issues
-     * @param pageUrl URL of the page
-     * @return Array containing total checks and well optimized checks
-     */
-    private int[] checkBrokenLinksInHtml(String html, List<String> issues, String pageUrl) {
-        int totalChecks = 0;
-        int wellOptimizedChecks = 0;
-
-        String linkRegex = "<a\\s+href=[\"'](http[s]?://.*?)[\"'].*?>";
-        Matcher matcher = Pattern.compile(linkRegex, Pattern.CASE_INSENSITIVE).matcher(html);
-
-        while (matcher.find()) {
-            totalChecks++;
-            String link = matcher.group(1);
-            if (isLinkBroken(link)) {
-                issues.add("Broken link: " + link);
-            } else {
-                wellOptimizedChecks++;
-            }
+            // A server or network error says nothing about the file, leave it out of the score
+            totalChecks--;
+            findings.add(new ScanFinding(asset.getDomain(), "robots-txt-unreachable", Severity.INFO, "Could not read robots.txt", 0));
         }
 
         return new int[]{totalChecks, wellOptimizedChecks};
     }
-}
\ No newline at end of file
+}
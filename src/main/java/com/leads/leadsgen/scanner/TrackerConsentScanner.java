@@ -2,29 +2,60 @@ package com.leads.leadsgen.scanner;
 
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.scanner.browser.BrowserSession;
+import com.leads.leadsgen.scanner.browser.BrowserSessionPool;
+import com.leads.leadsgen.scanner.browser.PageSettleDetector;
+import com.leads.leadsgen.util.AhoCorasick;
 import net.lightbody.bmp.BrowserMobProxy;
-import net.lightbody.bmp.BrowserMobProxyServer;
-import net.lightbody.bmp.client.ClientUtil;
-import org.openqa.selenium.Proxy;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.remote.CapabilityType;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.time.Duration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class TrackerConsentScanner extends Scanner {
 
-    private static final String SELENIUM_SERVER_URL = "http://selenium-standalone:4444/wd/hub";
-    private static final int PAGE_LOAD_WAIT_TIME_MS = 5000;
+    // Change whenever the scan changes so older reports are not reused
+    private static final String VERSION = "TrackerConsentScanner/2";
 
-    public TrackerConsentScanner() {
+    // Markers of Google Analytics, gtag.js and Tag Manager in page source
+    private static final AhoCorasick TRACKER_FINGERPRINTS = new AhoCorasick(List.of(
+            "googletagmanager.com",
+            "google-analytics.com",
+            "gtag(",
+            "gtag.js",
+            "analytics.js",
+            "ga('create'",
+            "ga(\"create\"",
+            "GTM-",
+            "dataLayer.push",
+            "__gaTracker"
+    ));
+
+    private final BrowserSessionPool browserSessionPool;
+
+    @Value("${tracker.settle.idle-ms:1000}")
+    private long settleIdleMs = 1000;
+
+    @Value("${tracker.settle.max-wait-ms:5000}")
+    private long settleMaxWaitMs = 5000;
+
+    @Value("${tracker.prefilter.enabled:true}")
+    private boolean prefilterEnabled = true;
+
+    public TrackerConsentScanner(BrowserSessionPool browserSessionPool) {
         super("TrackerConsentScanner");
+        this.browserSessionPool = browserSessionPool;
+    }
+
+    @Override
+    public String fingerprint(Asset asset) {
+        return contentFingerprint(asset, VERSION);
     }
 
     /**
@@ -35,39 +66,42 @@ public class TrackerConsentScanner extends Scanner {
      */
     @Override
     public ScanReport scan(Asset asset) {
-        List<String> foundRequests = null;
-
-        BrowserMobProxy proxy = new BrowserMobProxyServer();
-        proxy.setTrustAllServers(true);
-        proxy.start(0);
-
-        Proxy seleniumProxy = ClientUtil.createSeleniumProxy(proxy);
+        if (prefilterEnabled && !hasTrackerFingerprint(asset)) {
+            System.out.println("No tracker code found in crawled pages, skipping browser scan for: " + asset.getDomain());
+            return new ScanReport("Google Analytics g/collect requests detected: [] (no tracker code found in crawled pages)", asset, false);
+        }
 
-        ChromeOptions options = setupChromeOptions(seleniumProxy);
+        List<String> foundRequests = null;
 
-        WebDriver driver = null;
+        BrowserSession session = null;
 
         try {
-            driver = new RemoteWebDriver(getSeleniumServerUrl(), options);
+            session = browserSessionPool.lease();
+            BrowserMobProxy proxy = session.getProxy();
 
             proxy.newHar("tracker-scan");
+            session.getSettleDetector().reset();
 
-            driver.get(asset.getUrls().getFirst());
+            session.getDriver().get(asset.getUrls().getFirst());
 
-            Thread.sleep(PAGE_LOAD_WAIT_TIME_MS);
+            // Stop at the first g/collect hit or once the network is idle, the max wait is only an upper bound
+            session.getSettleDetector().awaitSettled(Duration.ofMillis(settleIdleMs), Duration.ofMillis(settleMaxWaitMs));
 
-            foundRequests = extractAnalyticsRequests(proxy);
+            Set<String> requests = new LinkedHashSet<>(extractAnalyticsRequests(proxy));
+            requests.addAll(session.getSettleDetector().getCollectRequests());
+            foundRequests = List.copyOf(requests);
 
             foundRequests.forEach(request -> System.out.println("Captured Google Analytics Request: " + request));
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             System.err.println("Error scanning for trackers: " + e.getMessage());
             e.printStackTrace();
         } finally {
-            if (driver != null) {
-                driver.quit();
+            if (session != null) {
+                browserSessionPool.release(session);
             }
-            proxy.stop();
         }
 
         boolean hasViolations = foundRequests != null && !foundRequests.isEmpty();
@@ -75,32 +109,23 @@ public class TrackerConsentScanner extends Scanner {
     }
 
     /**
-     * Setup Chrome options for Selenium WebDriver.
-     *
-     * @param seleniumProxy The Selenium proxy.
-     * @return Configured ChromeOptions.
-     */
-    private ChromeOptions setupChromeOptions(Proxy seleniumProxy) {
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--ignore-certificate-errors");
-        options.addArguments("--ignore-ssl-errors=yes");
-        options.addArguments("--allow-insecure-localhost");
-        options.addArguments("--disable-web-security");
-        options.addArguments("--headless=new");
-        options.addArguments("--disable-gpu");
-        options.addArguments("--window-size=1920,1080");
-        options.setCapability(CapabilityType.PROXY, seleniumProxy);
-        return options;
-    }
-
-    /**
-     * Get the Selenium server URL.
+     * Check the crawled HTML of an asset for tracker code. Assets without stored HTML are
+     * treated as suspicious so they still get a browser scan.
      *
-     * @return The URL of the Selenium server.
-     * @throws MalformedURLException If the URL is invalid.
+     * @param asset Asset to check
+     * @return True if any page contains a tracker marker or no HTML is stored
      */
-    private URL getSeleniumServerUrl() throws MalformedURLException {
-        return new URL(SELENIUM_SERVER_URL);
+    private boolean hasTrackerFingerprint(Asset asset) {
+        Map<String, String> htmlContents = asset.getHtmlContents();
+        if (htmlContents == null || htmlContents.isEmpty()) {
+            return true;
+        }
+        for (String html : htmlContents.values()) {
+            if (html != null && TRACKER_FINGERPRINTS.containsAny(html)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -112,7 +137,7 @@ public class TrackerConsentScanner extends Scanner {
     private List<String> extractAnalyticsRequests(BrowserMobProxy proxy) {
         return proxy.getHar().getLog().getEntries().stream()
                 .map(entry -> entry.getRequest().getUrl())
-                .filter(url -> url.matches("https://[a-zA-Z0-9.-]*google-analytics\\.com/g/collect.*"))
+                .filter(url -> PageSettleDetector.ANALYTICS_COLLECT.matcher(url).matches())
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
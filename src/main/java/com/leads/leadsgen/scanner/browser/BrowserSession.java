@@ -0,0 +1,186 @@
+package com.leads.leadsgen.scanner.browser;
+
+import net.lightbody.bmp.BrowserMobProxy;
+import net.lightbody.bmp.BrowserMobProxyServer;
+import net.lightbody.bmp.client.ClientUtil;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A headless Chrome session on the Selenium server together with the proxy that records
+ * its traffic. Sessions are expensive to start and are reused through the BrowserSessionPool.
+ */
+public class BrowserSession {
+
+    private final BrowserMobProxy proxy;
+    private final WebDriver driver;
+    private final PageSettleDetector settleDetector = new PageSettleDetector();
+    // Origins requested through the proxy since the last reset, including third parties
+    private final Set<String> visitedOrigins = ConcurrentHashMap.newKeySet();
+    private int uses;
+
+    public BrowserSession(BrowserMobProxy proxy, WebDriver driver) {
+        this.proxy = proxy;
+        this.driver = driver;
+        if (proxy != null) {
+            settleDetector.install(proxy);
+            proxy.addRequestFilter((request, contents, messageInfo) -> {
+                recordOrigin(messageInfo.getOriginalUrl());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Start a proxy and a Chrome session using it
+     *
+     * @param seleniumServerUrl URL of the Selenium server
+     * @return Started session
+     */
+    public static BrowserSession start(URL seleniumServerUrl) {
+        BrowserMobProxy proxy = new BrowserMobProxyServer();
+        proxy.setTrustAllServers(true);
+        proxy.start(0);
+
+        try {
+            Proxy seleniumProxy = ClientUtil.createSeleniumProxy(proxy);
+            // Augmented so the remote driver can send DevTools commands, see reset()
+            WebDriver driver = new Augmenter().augment(new RemoteWebDriver(seleniumServerUrl, setupChromeOptions(seleniumProxy)));
+            return new BrowserSession(proxy, driver);
+        } catch (RuntimeException e) {
+            proxy.stop();
+            throw e;
+        }
+    }
+
+    public BrowserMobProxy getProxy() {
+        return proxy;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public PageSettleDetector getSettleDetector() {
+        return settleDetector;
+    }
+
+    /**
+     * Get the number of times the session has been leased
+     *
+     * @return Number of leases
+     */
+    public int getUses() {
+        return uses;
+    }
+
+    void markUsed() {
+        uses++;
+    }
+
+    /**
+     * Leave the last visited site and clear the cookies of every origin and the storage of
+     * every origin the session requested, including third parties, so the next lease starts
+     * like a first visit. WebDriver can only delete the cookies of the current page, so this
+     * uses DevTools.
+     *
+     * @throws IllegalStateException If the driver cannot send DevTools commands, the pool then
+     *                               closes the session instead of reusing it
+     */
+    public void reset() {
+        if (!(driver instanceof HasCdp cdp)) {
+            throw new IllegalStateException("Browser state cannot be cleared without DevTools");
+        }
+        driver.get("about:blank");
+        cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+
+        List<String> origins = new ArrayList<>(visitedOrigins);
+        for (String origin : origins) {
+            cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+        }
+        visitedOrigins.removeAll(origins);
+    }
+
+    /**
+     * Remember the origin of a requested URL so reset() clears its storage
+     *
+     * @param url Requested URL
+     */
+    void recordOrigin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            boolean defaultPort = uri.getPort() == -1
+                    || (scheme.equals("http") && uri.getPort() == 80)
+                    || (scheme.equals("https") && uri.getPort() == 443);
+            visitedOrigins.add(scheme + "://" + uri.getHost().toLowerCase(Locale.ROOT) + (defaultPort ? "" : ":" + uri.getPort()));
+        } catch (IllegalArgumentException e) {
+            // Not a URL with an origin, e.g. a CONNECT target
+        }
+    }
+
+    /**
+     * Check whether the proxy is running and the browser still responds
+     *
+     * @return True if the session can be used
+     */
+    public boolean isHealthy() {
+        try {
+            return proxy.isStarted() && driver.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Quit the browser and stop the proxy
+     */
+    public void close() {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Error quitting browser session: " + e.getMessage());
+        }
+        try {
+            proxy.stop();
+        } catch (Exception e) {
+            System.err.println("Error stopping proxy: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Setup Chrome options for Selenium WebDriver.
+     *
+     * @param seleniumProxy The Selenium proxy.
+     * @return Configured ChromeOptions.
+     */
+    private static ChromeOptions setupChromeOptions(Proxy seleniumProxy) {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--ignore-certificate-errors");
+        options.addArguments("--ignore-ssl-errors=yes");
+        options.addArguments("--allow-insecure-localhost");
+        options.addArguments("--disable-web-security");
+        options.addArguments("--headless=new");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+        options.setCapability(CapabilityType.PROXY, seleniumProxy);
+        return options;
+    }
+}
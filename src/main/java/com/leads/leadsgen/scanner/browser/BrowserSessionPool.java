@@ -0,0 +1,144 @@
+package com.leads.leadsgen.scanner.browser;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Pool of browser sessions. At most poolSize sessions are leased at a time, so browser
+ * scans run that many wide. Sessions are reset between leases, checked before they are
+ * handed out and replaced when they are unhealthy or have been used maxUses times.
+ */
+@Component
+public class BrowserSessionPool {
+
+    private final Supplier<BrowserSession> sessionFactory;
+    private final int poolSize;
+    private final int maxUses;
+    private final boolean prewarm;
+    private final Semaphore permits;
+    private final BlockingQueue<BrowserSession> idleSessions = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+
+    @Autowired
+    public BrowserSessionPool(
+            @Value("${tracker.browser.selenium-url:http://selenium-standalone:4444/wd/hub}") String seleniumUrl,
+            @Value("${tracker.browser.pool-size:2}") int poolSize,
+            @Value("${tracker.browser.max-uses:50}") int maxUses,
+            @Value("${tracker.browser.prewarm:true}") boolean prewarm) {
+        this(sessionFactory(seleniumUrl), poolSize, maxUses, prewarm);
+    }
+
+    BrowserSessionPool(Supplier<BrowserSession> sessionFactory, int poolSize, int maxUses, boolean prewarm) {
+        this.sessionFactory = sessionFactory;
+        this.poolSize = poolSize;
+        this.maxUses = maxUses;
+        this.prewarm = prewarm;
+        this.permits = new Semaphore(poolSize, true);
+    }
+
+    /**
+     * Start the sessions in the background so the first scans do not pay for Chrome startup
+     */
+    @PostConstruct
+    public void prewarm() {
+        if (!prewarm) {
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            for (int i = 0; i < poolSize && !closed; i++) {
+                try {
+                    idleSessions.offer(sessionFactory.get());
+                } catch (Exception e) {
+                    System.err.println("Error prewarming browser session: " + e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Lease a session, waiting until one is free. The session must be given back with release.
+     *
+     * @return Healthy session
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public BrowserSession lease() throws InterruptedException {
+        permits.acquire();
+        try {
+            BrowserSession session;
+            while ((session = idleSessions.poll()) != null) {
+                if (session.isHealthy()) {
+                    session.markUsed();
+                    return session;
+                }
+                session.close();
+            }
+
+            session = sessionFactory.get();
+            session.markUsed();
+            return session;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back a leased session. It is reset for the next lease, or closed if the reset
+     * fails or it has reached its maximum number of uses.
+     *
+     * @param session Session to give back
+     */
+    public void release(BrowserSession session) {
+        try {
+            if (closed || session.getUses() >= maxUses || idleSessions.size() >= poolSize) {
+                session.close();
+                return;
+            }
+            session.reset();
+            idleSessions.offer(session);
+        } catch (Exception e) {
+            System.err.println("Discarding browser session: " + e.getMessage());
+            session.close();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Get the number of idle sessions
+     *
+     * @return Number of idle sessions
+     */
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        BrowserSession session;
+        while ((session = idleSessions.poll()) != null) {
+            session.close();
+        }
+    }
+
+    private static Supplier<BrowserSession> sessionFactory(String seleniumUrl) {
+        try {
+            URL seleniumServerUrl = new URL(seleniumUrl);
+            return () -> BrowserSession.start(seleniumServerUrl);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid Selenium server URL: " + seleniumUrl, e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.leads.leadsgen.scanner.browser;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import net.lightbody.bmp.BrowserMobProxy;
+import net.lightbody.bmp.util.HttpMessageContents;
+import net.lightbody.bmp.util.HttpMessageInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Watches the traffic through a session's proxy to tell when a page has settled: either a
+ * Google Analytics g/collect hit has been seen, or no request or response has passed for
+ * the idle window.
+ */
+public class PageSettleDetector {
+
+    public static final Pattern ANALYTICS_COLLECT = Pattern.compile("https://[a-zA-Z0-9.-]*google-analytics\\.com/g/collect.*");
+
+    private final Object lock = new Object();
+    private final List<String> collectRequests = new ArrayList<>();
+    private long lastActivity = System.nanoTime();
+
+    /**
+     * Register the detector's filters on a proxy
+     *
+     * @param proxy Proxy of the session
+     */
+    public void install(BrowserMobProxy proxy) {
+        proxy.addRequestFilter(this::onRequest);
+        proxy.addResponseFilter(this::onResponse);
+    }
+
+    /**
+     * Start watching a new page
+     */
+    public void reset() {
+        synchronized (lock) {
+            lastActivity = System.nanoTime();
+            collectRequests.clear();
+        }
+    }
+
+    /**
+     * Get the g/collect requests seen since the last reset
+     *
+     * @return List of request URLs
+     */
+    public List<String> getCollectRequests() {
+        synchronized (lock) {
+            return new ArrayList<>(collectRequests);
+        }
+    }
+
+    /**
+     * Wait until the page has settled
+     *
+     * @param idle    Time without traffic after which the page counts as settled
+     * @param maxWait Upper bound on the wait
+     * @return True if the page settled, false if the maximum wait ran out first
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitSettled(Duration idle, Duration maxWait) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        synchronized (lock) {
+            while (true) {
+                long now = System.nanoTime();
+                if (!collectRequests.isEmpty() || now - lastActivity >= idle.toNanos()) {
+                    return true;
+                }
+                if (now >= deadline) {
+                    return false;
+                }
+                long waitNanos = Math.min(lastActivity + idle.toNanos() - now, deadline - now);
+                lock.wait(Math.max(1, waitNanos / 1_000_000));
+            }
+        }
+    }
+
+    HttpResponse onRequest(HttpRequest request, HttpMessageContents contents, HttpMessageInfo messageInfo) {
+        recordActivity(messageInfo.getOriginalUrl());
+        return null;
+    }
+
+    void onResponse(HttpResponse response, HttpMessageContents contents, HttpMessageInfo messageInfo) {
+        recordActivity(null);
+    }
+
+    /**
+     * Record traffic, waking the waiting scan if a g/collect hit was seen
+     *
+     * @param url URL of a request, null for a response
+     */
+    void recordActivity(String url) {
+        synchronized (lock) {
+            lastActivity = System.nanoTime();
+            if (url != null && ANALYTICS_COLLECT.matcher(url).matches()) {
+                collectRequests.add(url);
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.leads.leadsgen.scanner.html;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming HTML tokenizer. Walks a page once from start to end and reports start tags,
+ * end tags and text to visitors. Comments, doctypes and processing instructions are skipped.
+ * The content of raw text elements such as script and style is reported as a single text
+ * token and never parsed as markup.
+ */
+public final class HtmlTokenizer {
+
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style", "title", "textarea");
+
+    private HtmlTokenizer() {
+    }
+
+    /**
+     * Tokenize a page
+     *
+     * @param html    HTML content of the page
+     * @param visitor Visitor to report tokens to
+     */
+    public static void tokenize(String html, HtmlVisitor visitor) {
+        tokenize(html, List.of(visitor));
+    }
+
+    /**
+     * Tokenize a page, reporting every token to all visitors in order
+     *
+     * @param html     HTML content of the page
+     * @param visitors Visitors to report tokens to
+     */
+    public static void tokenize(String html, List<? extends HtmlVisitor> visitors) {
+        int length = html.length();
+        int textStart = 0;
+        int i = html.indexOf('<');
+
+        while (i >= 0 && i < length - 1) {
+            char next = html.charAt(i + 1);
+            int end;
+
+            if (html.startsWith("!--", i + 1)) {
+                emitText(html, textStart, i, visitors);
+                int close = html.indexOf("-->", i + 4);
+                end = close < 0 ? length : close + 3;
+            } else if (next == '!' || next == '?') {
+                emitText(html, textStart, i, visitors);
+                int close = html.indexOf('>', i + 2);
+                end = close < 0 ? length : close + 1;
+            } else if (next == '/' && i + 2 < length && isLetter(html.charAt(i + 2))) {
+                emitText(html, textStart, i, visitors);
+                int nameEnd = readName(html, i + 2);
+                String name = html.substring(i + 2, nameEnd).toLowerCase();
+                int close = html.indexOf('>', nameEnd);
+                end = close < 0 ? length : close + 1;
+                for (HtmlVisitor visitor : visitors) {
+                    visitor.endTag(name);
+                }
+            } else if (isLetter(next)) {
+                emitText(html, textStart, i, visitors);
+                end = readStartTag(html, i, visitors);
+            } else {
+                // A lone '<' is text
+                i = html.indexOf('<', i + 1);
+                continue;
+            }
+
+            textStart = end;
+            i = end < length ? html.indexOf('<', end) : -1;
+        }
+
+        emitText(html, textStart, length, visitors);
+    }
+
+    /**
+     * Read a start tag and its attributes. For raw text elements the content up to the
+     * matching end tag is reported as text.
+     *
+     * @return Position after the tag, or after the raw text content
+     */
+    private static int readStartTag(String html, int start, List<? extends HtmlVisitor> visitors) {
+        int length = html.length();
+        int nameEnd = readName(html, start + 1);
+        String name = html.substring(start + 1, nameEnd).toLowerCase();
+        Map<String, String> attributes = new HashMap<>();
+
+        int i = nameEnd;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '>') {
+                i++;
+                break;
+            }
+            if (Character.isWhitespace(c) || c == '/') {
+                i++;
+                continue;
+            }
+
+            int attributeStart = i;
+            while (i < length && !Character.isWhitespace(html.charAt(i)) && html.charAt(i) != '=' && html.charAt(i) != '>'
+                    && !(html.charAt(i) == '/' && i + 1 < length && html.charAt(i + 1) == '>')) {
+                i++;
+            }
+            String attribute = html.substring(attributeStart, i).toLowerCase();
+
+            int afterName = skipWhitespace(html, i);
+            String value = "";
+            if (afterName < length && html.charAt(afterName) == '=') {
+                int valueStart = skipWhitespace(html, afterName + 1);
+                if (valueStart < length && (html.charAt(valueStart) == '"' || html.charAt(valueStart) == '\'')) {
+                    int valueEnd = html.indexOf(html.charAt(valueStart), valueStart + 1);
+                    valueEnd = valueEnd < 0 ? length : valueEnd;
+                    value = html.substring(valueStart + 1, valueEnd);
+                    i = Math.min(length, valueEnd + 1);
+                } else {
+                    int valueEnd = valueStart;
+                    while (valueEnd < length && !Character.isWhitespace(html.charAt(valueEnd)) && html.charAt(valueEnd) != '>') {
+                        valueEnd++;
+                    }
+                    value = html.substring(valueStart, valueEnd);
+                    i = valueEnd;
+                }
+            }
+            attributes.putIfAbsent(attribute, value);
+        }
+
+        String rawTag = html.substring(start, i);
+        for (HtmlVisitor visitor : visitors) {
+            visitor.startTag(name, attributes, rawTag);
+        }
+
+        if (RAW_TEXT_ELEMENTS.contains(name) && !rawTag.endsWith("/>")) {
+            int close = indexOfEndTag(html, name, i);
+            int contentEnd = close < 0 ? length : close;
+            emitText(html, i, contentEnd, visitors);
+            return contentEnd;
+        }
+        return i;
+    }
+
+    private static void emitText(String html, int start, int end, List<? extends HtmlVisitor> visitors) {
+        if (end > start) {
+            String text = html.substring(start, end);
+            for (HtmlVisitor visitor : visitors) {
+                visitor.text(text);
+            }
+        }
+    }
+
+    private static int indexOfEndTag(String html, String name, int from) {
+        for (int i = html.indexOf("</", from); i >= 0; i = html.indexOf("</", i + 2)) {
+            int nameEnd = i + 2 + name.length();
+            if (html.regionMatches(true, i + 2, name, 0, name.length())
+                    && (nameEnd >= html.length() || !isNameChar(html.charAt(nameEnd)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int readName(String html, int start) {
+        int i = start;
+        while (i < html.length() && isNameChar(html.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(String html, int start) {
+        int i = start;
+        while (i < html.length() && Character.isWhitespace(html.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNameChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '-' || c == ':' || c == '_';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,35 @@
+package com.leads.leadsgen.scanner.html;
+
+import java.util.Map;
+
+/**
+ * Receives the tokens of a page from the HtmlTokenizer in document order
+ */
+public interface HtmlVisitor {
+
+    /**
+     * Called for every start tag
+     *
+     * @param name       Lowercase tag name
+     * @param attributes Attributes by lowercase name, values without quotes
+     * @param rawTag     The tag exactly as it appears in the page
+     */
+    default void startTag(String name, Map<String, String> attributes, String rawTag) {
+    }
+
+    /**
+     * Called for every end tag
+     *
+     * @param name Lowercase tag name
+     */
+    default void endTag(String name) {
+    }
+
+    /**
+     * Called for text between tags, including the raw content of script, style, title and textarea elements
+     *
+     * @param text Text as it appears in the page
+     */
+    default void text(String text) {
+    }
+}
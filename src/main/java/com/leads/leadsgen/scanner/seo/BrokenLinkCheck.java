@@ -0,0 +1,72 @@
+package com.leads.leadsgen.scanner.seo;
+
+import com.leads.leadsgen.model.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static com.leads.leadsgen.util.StringUtils.startsWithIgnoreCase;
+
+/**
+ * Checks that absolute http(s) links in the page are not broken. Links are collected while
+ * the page is read and only judged when the check finishes, so the links of all pages can
+ * be verified together in between.
+ */
+public class BrokenLinkCheck implements SeoCheck {
+
+    private final Predicate<String> linkBroken;
+    private final List<String> links = new ArrayList<>();
+
+    /**
+     * @param linkBroken Tells whether a link is broken, called when the check finishes
+     */
+    public BrokenLinkCheck(Predicate<String> linkBroken) {
+        this.linkBroken = linkBroken;
+    }
+
+    @Override
+    public String getId() {
+        return "broken-link";
+    }
+
+    @Override
+    public Severity getSeverity() {
+        return Severity.ERROR;
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (!name.equals("a")) {
+            return;
+        }
+
+        String link = attributes.get("href");
+        if (startsWithIgnoreCase(link, "http://") || startsWithIgnoreCase(link, "https://")) {
+            links.add(link);
+        }
+    }
+
+    /**
+     * Get the links found in the page
+     *
+     * @return List of links in document order
+     */
+    public List<String> getLinks() {
+        return links;
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        int wellOptimizedChecks = 0;
+        for (String link : links) {
+            if (linkBroken.test(link)) {
+                issues.add("Broken link: " + link);
+            } else {
+                wellOptimizedChecks++;
+            }
+        }
+        return new int[]{links.size(), wellOptimizedChecks};
+    }
+}
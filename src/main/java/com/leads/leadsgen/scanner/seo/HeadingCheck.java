@@ -0,0 +1,59 @@
+package com.leads.leadsgen.scanner.seo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the page has an H1 heading of at most 70 characters. Only the text of the
+ * first H1 is measured, markup inside the heading is not counted.
+ */
+public class HeadingCheck implements SeoCheck {
+
+    private StringBuilder heading;
+    private boolean inHeading;
+    private boolean closed;
+
+    @Override
+    public String getId() {
+        return "h1";
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (name.equals("h1") && heading == null) {
+            heading = new StringBuilder();
+            inHeading = true;
+        }
+    }
+
+    @Override
+    public void endTag(String name) {
+        if (name.equals("h1") && inHeading) {
+            inHeading = false;
+            closed = true;
+        }
+    }
+
+    @Override
+    public void text(String text) {
+        if (inHeading) {
+            heading.append(text);
+        }
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        if (!closed) {
+            issues.add("Missing H1 tag");
+            return new int[]{1, 0};
+        }
+
+        String text = heading.toString().trim();
+        if (text.length() > 70) {
+            issues.add("H1 tag too long (more than 70 characters)");
+        } else if (!text.isEmpty()) {
+            return new int[]{1, 1};
+        }
+        return new int[]{1, 0};
+    }
+}
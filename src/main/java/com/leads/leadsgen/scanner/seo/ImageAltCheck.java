@@ -0,0 +1,50 @@
+package com.leads.leadsgen.scanner.seo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that every image has an alt attribute of at most 100 characters
+ */
+public class ImageAltCheck implements SeoCheck {
+
+    // Inline data: images make the raw tag as large as the image itself
+    private static final int MAX_TAG_LENGTH = 200;
+
+    private final List<String> issues = new ArrayList<>();
+    private int totalChecks;
+    private int wellOptimizedChecks;
+
+    @Override
+    public String getId() {
+        return "img-alt";
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (!name.equals("img")) {
+            return;
+        }
+
+        totalChecks++;
+        String alt = attributes.get("alt");
+        if (alt == null) {
+            issues.add("Missing alt attribute in img tag: " + shorten(rawTag));
+        } else if (alt.trim().length() > 100) {
+            issues.add("Alt attribute too long (more than 100 characters): " + alt.trim());
+        } else {
+            wellOptimizedChecks++;
+        }
+    }
+
+    private static String shorten(String rawTag) {
+        return rawTag.length() <= MAX_TAG_LENGTH ? rawTag : rawTag.substring(0, MAX_TAG_LENGTH) + "...";
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        issues.addAll(this.issues);
+        return new int[]{totalChecks, wellOptimizedChecks};
+    }
+}
@@ -0,0 +1,39 @@
+package com.leads.leadsgen.scanner.seo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the page has a meta description of 50 to 160 characters
+ */
+public class MetaDescriptionCheck implements SeoCheck {
+
+    private String description;
+
+    @Override
+    public String getId() {
+        return "meta-description";
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (description == null && name.equals("meta") && "description".equalsIgnoreCase(attributes.get("name"))
+                && attributes.containsKey("content")) {
+            description = attributes.get("content").trim();
+        }
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        if (description == null) {
+            issues.add("Missing meta description");
+        } else if (description.length() < 50) {
+            issues.add("Meta description too short (less than 50 characters)");
+        } else if (description.length() > 160) {
+            issues.add("Meta description too long (more than 160 characters)");
+        } else {
+            return new int[]{1, 1};
+        }
+        return new int[]{1, 0};
+    }
+}
@@ -0,0 +1,59 @@
+package com.leads.leadsgen.scanner.seo;
+
+import com.leads.leadsgen.model.Severity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the page references schema.org, either in microdata attributes or in
+ * JSON-LD scripts
+ */
+public class SchemaMarkupCheck implements SeoCheck {
+
+    private static final String SCHEMA_ORG = "schema.org";
+
+    private boolean found;
+
+    @Override
+    public String getId() {
+        return "schema-org";
+    }
+
+    @Override
+    public Severity getSeverity() {
+        return Severity.INFO;
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (!found) {
+            found = containsIgnoreCase(rawTag);
+        }
+    }
+
+    @Override
+    public void text(String text) {
+        if (!found) {
+            found = containsIgnoreCase(text);
+        }
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        if (found) {
+            return new int[]{1, 1};
+        }
+        issues.add("Missing schema.org markup");
+        return new int[]{1, 0};
+    }
+
+    private static boolean containsIgnoreCase(String text) {
+        for (int i = text.indexOf('.'); i >= 6; i = text.indexOf('.', i + 1)) {
+            if (text.regionMatches(true, i - 6, SCHEMA_ORG, 0, SCHEMA_ORG.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
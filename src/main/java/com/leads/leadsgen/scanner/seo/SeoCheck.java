@@ -0,0 +1,37 @@
+package com.leads.leadsgen.scanner.seo;
+
+import com.leads.leadsgen.model.Severity;
+import com.leads.leadsgen.scanner.html.HtmlVisitor;
+
+import java.util.List;
+
+/**
+ * A single SEO check. Checks receive the tokens of one page while it is tokenized and
+ * report their result once the page has been read. A new instance is used for every page.
+ */
+public interface SeoCheck extends HtmlVisitor {
+
+    /**
+     * Get the id stored with the findings of this check
+     *
+     * @return Check id
+     */
+    String getId();
+
+    /**
+     * Get the severity of the findings of this check
+     *
+     * @return Severity
+     */
+    default Severity getSeverity() {
+        return Severity.WARNING;
+    }
+
+    /**
+     * Finish the check after the whole page has been read
+     *
+     * @param issues List to store issues
+     * @return Array containing total checks and well optimized checks
+     */
+    int[] finish(List<String> issues);
+}
@@ -0,0 +1,65 @@
+package com.leads.leadsgen.scanner.seo;
+
+import com.leads.leadsgen.model.Severity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that the page has a title of 10 to 70 characters
+ */
+public class TitleCheck implements SeoCheck {
+
+    private StringBuilder title;
+    private boolean inTitle;
+
+    @Override
+    public String getId() {
+        return "title";
+    }
+
+    @Override
+    public Severity getSeverity() {
+        return Severity.ERROR;
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (name.equals("title") && title == null) {
+            title = new StringBuilder();
+            inTitle = true;
+        }
+    }
+
+    @Override
+    public void endTag(String name) {
+        if (name.equals("title")) {
+            inTitle = false;
+        }
+    }
+
+    @Override
+    public void text(String text) {
+        if (inTitle) {
+            title.append(text);
+        }
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        if (title == null) {
+            issues.add("Missing title tag");
+            return new int[]{1, 0};
+        }
+
+        int length = title.toString().trim().length();
+        if (length < 10) {
+            issues.add("Title tag too short (less than 10 characters)");
+        } else if (length > 70) {
+            issues.add("Title tag too long (more than 70 characters)");
+        } else {
+            return new int[]{1, 1};
+        }
+        return new int[]{1, 0};
+    }
+}
@@ -0,0 +1,43 @@
+package com.leads.leadsgen.scanner.seo;
+
+import com.leads.leadsgen.model.Severity;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.leads.leadsgen.util.StringUtils.startsWithIgnoreCase;
+
+/**
+ * Checks that the page has Twitter Card meta tags
+ */
+public class TwitterCardCheck implements SeoCheck {
+
+    private boolean found;
+
+    @Override
+    public String getId() {
+        return "twitter-card";
+    }
+
+    @Override
+    public Severity getSeverity() {
+        return Severity.INFO;
+    }
+
+    @Override
+    public void startTag(String name, Map<String, String> attributes, String rawTag) {
+        if (!found && name.equals("meta")) {
+            found = startsWithIgnoreCase(attributes.get("name"), "twitter:")
+                    || startsWithIgnoreCase(attributes.get("property"), "twitter:");
+        }
+    }
+
+    @Override
+    public int[] finish(List<String> issues) {
+        if (found) {
+            return new int[]{1, 1};
+        }
+        issues.add("Missing Twitter Card markup");
+        return new int[]{1, 0};
+    }
+}
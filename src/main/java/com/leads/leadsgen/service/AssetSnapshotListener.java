@@ -0,0 +1,34 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.model.Asset;
+import jakarta.persistence.PostLoad;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Entity listener that lets assets loaded from the database lazily read their crawled
+ * HTML from the page snapshot store.
+ */
+@Component
+public class AssetSnapshotListener {
+
+    private final ObjectProvider<PageSnapshotStore> snapshotStore;
+
+    public AssetSnapshotListener(ObjectProvider<PageSnapshotStore> snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @PostLoad
+    public void attachSnapshots(Asset asset) {
+        PageSnapshotStore store = snapshotStore.getIfAvailable();
+        if (store == null) {
+            return;
+        }
+        asset.setHtmlContentsLoader(() -> {
+            Map<String, String> htmlContents = store.getAll(asset.getDomain(), asset.getUrls());
+            return htmlContents.isEmpty() ? null : htmlContents;
+        });
+    }
+}
@@ -0,0 +1,334 @@
+package com.leads.leadsgen.service;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Extracts emails and phone numbers from HTML in a single forward pass. Script, style and
+ * comment bodies are skipped, mailto: and tel: links are decoded, and phone numbers are
+ * only read from text content. Every character is visited a bounded number of times, so
+ * long digit runs in inline JSON cannot cause backtracking.
+ */
+public class ContactExtractor {
+
+    private static final int MIN_PHONE_DIGITS = 7;
+    private static final int MAX_PHONE_DIGITS = 15;
+    private static final int MAX_LOCAL_PART = 64;
+    private static final int MAX_DOMAIN = 255;
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "svg", "webp");
+
+    private final Map<String, String> emails = new LinkedHashMap<>();
+    private final Map<String, String> phones = new LinkedHashMap<>();
+
+    /**
+     * Scan a page and add its contacts
+     *
+     * @param html HTML content of the page
+     */
+    public void scan(String html) {
+        int length = html.length();
+        int i = 0;
+        while (i < length) {
+            char c = html.charAt(i);
+            if (c == '<' && i + 1 < length && isTagStart(html.charAt(i + 1))) {
+                i = scanTag(html, i);
+            } else if (c == '@') {
+                i = scanEmail(html, i, length);
+            } else if (isPhoneStart(html, i) && (i == 0 || !isWordChar(html.charAt(i - 1)))) {
+                i = scanPhone(html, i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Get the emails found so far, in the order they were found
+     *
+     * @return Set of emails
+     */
+    public Set<String> getEmails() {
+        return new LinkedHashSet<>(emails.values());
+    }
+
+    /**
+     * Get the phone numbers found so far, in the order they were found
+     *
+     * @return Set of phone numbers
+     */
+    public Set<String> getPhones() {
+        return new LinkedHashSet<>(phones.values());
+    }
+
+    /**
+     * Scan a tag for links and emails in its attributes. The bodies of script and style
+     * elements and comments are skipped.
+     *
+     * @param html  HTML content
+     * @param start Position of the opening '<'
+     * @return Position to continue scanning from
+     */
+    private int scanTag(String html, int start) {
+        int nameStart = start + 1;
+        if (html.startsWith("!--", nameStart)) {
+            int end = html.indexOf("-->", nameStart + 3);
+            return end < 0 ? html.length() : end + 3;
+        }
+
+        int end = findTagEnd(html, nameStart);
+        scanAttributes(html, nameStart, end);
+
+        for (String rawTextTag : new String[]{"script", "style"}) {
+            if (isTagName(html, nameStart, rawTextTag)) {
+                int close = indexOfIgnoreCase(html, "</" + rawTextTag, end);
+                return close < 0 ? html.length() : close;
+            }
+        }
+        return end;
+    }
+
+    private void scanAttributes(String html, int from, int to) {
+        int j = from;
+        while (j < to) {
+            char c = html.charAt(j);
+            if ((c == 'm' || c == 'M') && html.regionMatches(true, j, "mailto:", 0, 7)) {
+                int valueEnd = findValueEnd(html, j + 7, to, true);
+                String email = decode(html.substring(j + 7, valueEnd)).trim();
+                int at = email.indexOf('@');
+                if (at > 0 && emailEnd(email, at + 1, email.length()) == email.length()) {
+                    addEmail(email);
+                }
+                j = valueEnd;
+            } else if ((c == 't' || c == 'T') && html.regionMatches(true, j, "tel:", 0, 4)) {
+                int valueEnd = findValueEnd(html, j + 4, to, false);
+                addPhone(decode(html.substring(j + 4, valueEnd)).trim());
+                j = valueEnd;
+            } else if (c == '@') {
+                j = scanEmail(html, j, to);
+            } else {
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Read an email around an '@'
+     *
+     * @param html  HTML content
+     * @param at    Position of the '@'
+     * @param limit Position the email may not extend past
+     * @return Position to continue scanning from
+     */
+    private int scanEmail(String html, int at, int limit) {
+        int localStart = at;
+        while (localStart > 0 && at - localStart < MAX_LOCAL_PART && isLocalChar(html.charAt(localStart - 1))) {
+            localStart--;
+        }
+
+        int domainEnd = at + 1;
+        while (domainEnd < limit && domainEnd - at <= MAX_DOMAIN && isDomainChar(html.charAt(domainEnd))) {
+            domainEnd++;
+        }
+
+        int end = emailEnd(html, at + 1, domainEnd);
+        if (localStart == at || end < 0) {
+            return at + 1;
+        }
+
+        addEmail(html.substring(localStart, end));
+        return end;
+    }
+
+    /**
+     * Find the end of the domain of an email: the end of the last label of two or more
+     * letters that follows a dot
+     *
+     * @param text Text containing the domain
+     * @param from Start of the domain
+     * @param to   End of the domain characters
+     * @return End of the email, or -1 if the domain has no valid top level label
+     */
+    private static int emailEnd(String text, int from, int to) {
+        for (int dot = to - 1; dot > from; dot--) {
+            if (text.charAt(dot) != '.') {
+                continue;
+            }
+            int end = dot + 1;
+            while (end < to && isAsciiLetter(text.charAt(end))) {
+                end++;
+            }
+            if (end - dot - 1 >= 2) {
+                return IMAGE_EXTENSIONS.contains(text.substring(dot + 1, end).toLowerCase()) ? -1 : end;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read a phone number candidate: digits separated by single spaces, dashes, dots or
+     * parentheses, with an optional leading '+'
+     *
+     * @param html  HTML content
+     * @param start Position of the first character
+     * @return Position to continue scanning from
+     */
+    private int scanPhone(String html, int start) {
+        int length = html.length();
+        int j = html.charAt(start) == '+' ? start + 1 : start;
+        int digits = 0;
+        int separators = 0;
+        int lastDigitEnd = -1;
+
+        while (j < length) {
+            char c = html.charAt(j);
+            if (isDigit(c)) {
+                digits++;
+                separators = 0;
+                lastDigitEnd = ++j;
+            } else if (isPhoneSeparator(c) && ++separators <= 2) {
+                j++;
+            } else {
+                break;
+            }
+        }
+
+        if (lastDigitEnd < 0) {
+            return start + 1;
+        }
+        if (lastDigitEnd < length && (isWordChar(html.charAt(lastDigitEnd)) || html.charAt(lastDigitEnd) == '@')) {
+            return lastDigitEnd;
+        }
+        if (digits >= MIN_PHONE_DIGITS && digits <= MAX_PHONE_DIGITS) {
+            addPhone(html.substring(start, lastDigitEnd));
+        }
+        return lastDigitEnd;
+    }
+
+    private void addEmail(String email) {
+        emails.putIfAbsent(email.toLowerCase(), email);
+    }
+
+    private void addPhone(String phone) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (isDigit(c) || (c == '+' && key.isEmpty())) {
+                key.append(c);
+            }
+        }
+
+        int digits = key.length() - (key.indexOf("+") == 0 ? 1 : 0);
+        if (digits < MIN_PHONE_DIGITS || digits > MAX_PHONE_DIGITS || isDate(phone)) {
+            return;
+        }
+        phones.putIfAbsent(key.toString(), phone.replace('\u00a0', ' '));
+    }
+
+    /**
+     * Check whether a candidate is an ISO date such as 2024-01-15
+     */
+    private static boolean isDate(String phone) {
+        if (phone.length() != 10) {
+            return false;
+        }
+        char separator = phone.charAt(4);
+        for (int i = 0; i < phone.length(); i++) {
+            boolean separatorPosition = i == 4 || i == 7;
+            if (separatorPosition ? phone.charAt(i) != separator : !isDigit(phone.charAt(i))) {
+                return false;
+            }
+        }
+        return separator == '-' || separator == '.' || separator == '/';
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static int findTagEnd(String html, int from) {
+        char quote = 0;
+        for (int j = from; j < html.length(); j++) {
+            char c = html.charAt(j);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return j + 1;
+            }
+        }
+        return html.length();
+    }
+
+    private static int findValueEnd(String html, int from, int to, boolean stopAtQuery) {
+        int j = from;
+        while (j < to) {
+            char c = html.charAt(j);
+            if (c == '"' || c == '\'' || c == '>' || Character.isWhitespace(c) || (stopAtQuery && c == '?')) {
+                break;
+            }
+            j++;
+        }
+        return j;
+    }
+
+    private static boolean isTagName(String html, int nameStart, String name) {
+        int end = nameStart + name.length();
+        if (!html.regionMatches(true, nameStart, name, 0, name.length())) {
+            return false;
+        }
+        return end >= html.length() || html.charAt(end) == '>' || html.charAt(end) == '/' || Character.isWhitespace(html.charAt(end));
+    }
+
+    private static int indexOfIgnoreCase(String html, String needle, int from) {
+        for (int j = html.indexOf('<', from); j >= 0; j = html.indexOf('<', j + 1)) {
+            if (html.regionMatches(true, j, needle, 0, needle.length())) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTagStart(char c) {
+        return isAsciiLetter(c) || c == '/' || c == '!' || c == '?';
+    }
+
+    private static boolean isPhoneStart(String html, int i) {
+        char c = html.charAt(i);
+        if (isDigit(c)) {
+            return true;
+        }
+        return (c == '+' || c == '(') && i + 1 < html.length() && isDigit(html.charAt(i + 1));
+    }
+
+    private static boolean isPhoneSeparator(char c) {
+        return c == ' ' || c == '-' || c == '.' || c == '(' || c == ')' || c == '\u00a0';
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isWordChar(char c) {
+        return isAsciiLetter(c) || isDigit(c) || c == '_';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
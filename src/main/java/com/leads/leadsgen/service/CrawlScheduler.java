@@ -0,0 +1,158 @@
+package com.leads.leadsgen.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class CrawlScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlScheduler.class);
+
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final int maxConcurrentCrawls;
+    private final int maxCrawlsPerHost;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private final Deque<Job> readyJobs = new ArrayDeque<>();
+    private final Map<String, Deque<Job>> waitingJobsPerHost = new HashMap<>();
+    private final Map<String, Integer> activeCrawlsPerHost = new HashMap<>();
+    private final Deque<Long> completionTimes = new ArrayDeque<>();
+    private int queuedJobs;
+    private int activeCrawls;
+    private long completedCrawls;
+
+    public CrawlScheduler(
+            @Value("${crawl.scheduler.max-concurrent:32}") int maxConcurrentCrawls,
+            @Value("${crawl.scheduler.max-per-host:1}") int maxCrawlsPerHost) {
+        if (maxConcurrentCrawls <= 0 || maxCrawlsPerHost <= 0) {
+            throw new IllegalArgumentException("Crawl concurrency limits must be greater than 0");
+        }
+        this.maxConcurrentCrawls = maxConcurrentCrawls;
+        this.maxCrawlsPerHost = maxCrawlsPerHost;
+    }
+
+    /**
+     * Queue a crawl task. Tasks start in FIFO order on virtual threads as soon as
+     * both a global slot and a slot for the host are free.
+     *
+     * @param host Host the task crawls, used for the per-host limit
+     * @param task Task to run
+     */
+    public synchronized void submit(String host, Runnable task) {
+        queue.add(new Job(host, task));
+        queuedJobs++;
+        dispatch();
+    }
+
+    /**
+     * Get a snapshot of the scheduler state
+     *
+     * @return Queue depth, active crawls and throughput
+     */
+    public synchronized Stats getStats() {
+        pruneCompletionTimes(System.nanoTime());
+        double completedPerSecond = completionTimes.size() / (RATE_WINDOW_NANOS / 1_000_000_000.0);
+        return new Stats(queuedJobs, activeCrawls, completedCrawls, completedPerSecond);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start as many queued jobs as the limits allow. Jobs whose host is saturated are
+     * parked per host and get priority once that host frees a slot, so every job is
+     * moved at most once.
+     */
+    private void dispatch() {
+        while (activeCrawls < maxConcurrentCrawls) {
+            Job job = readyJobs.poll();
+
+            if (job == null) {
+                job = queue.poll();
+                if (job == null) {
+                    return;
+                }
+                if (activeCrawlsPerHost.getOrDefault(job.host(), 0) >= maxCrawlsPerHost) {
+                    waitingJobsPerHost.computeIfAbsent(job.host(), host -> new ArrayDeque<>()).add(job);
+                    continue;
+                }
+            }
+
+            start(job);
+        }
+    }
+
+    private void start(Job job) {
+        queuedJobs--;
+        activeCrawls++;
+        activeCrawlsPerHost.merge(job.host(), 1, Integer::sum);
+        executor.execute(() -> run(job));
+    }
+
+    private void run(Job job) {
+        try {
+            job.task().run();
+        } catch (Exception e) {
+            log.error("Crawl task failed for host: {}", job.host(), e);
+        } finally {
+            complete(job);
+        }
+    }
+
+    private synchronized void complete(Job job) {
+        activeCrawls--;
+        completedCrawls++;
+
+        long now = System.nanoTime();
+        completionTimes.add(now);
+        pruneCompletionTimes(now);
+
+        if (activeCrawlsPerHost.merge(job.host(), -1, Integer::sum) == 0) {
+            activeCrawlsPerHost.remove(job.host());
+        }
+
+        Deque<Job> waitingJobs = waitingJobsPerHost.get(job.host());
+        if (waitingJobs != null) {
+            readyJobs.add(waitingJobs.poll());
+            if (waitingJobs.isEmpty()) {
+                waitingJobsPerHost.remove(job.host());
+            }
+        }
+
+        dispatch();
+    }
+
+    private void pruneCompletionTimes(long now) {
+        while (!completionTimes.isEmpty() && now - completionTimes.peek() > RATE_WINDOW_NANOS) {
+            completionTimes.poll();
+        }
+    }
+
+    private record Job(String host, Runnable task) {
+    }
+
+    /**
+     * Snapshot of the scheduler state
+     *
+     * @param queueDepth          Jobs waiting for a slot
+     * @param activeCrawls        Jobs currently running
+     * @param completedCrawls     Jobs finished since startup
+     * @param completedPerSecond  Jobs finished per second over the last 10 seconds
+     */
+    public record Stats(int queueDepth, int activeCrawls, long completedCrawls, double completedPerSecond) {
+    }
+}
@@ -2,15 +2,21 @@ package com.leads.leadsgen.service;
 
 import com.leads.leadsgen.exception.CrawlerException;
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.PageValidator;
 import com.leads.leadsgen.repository.AssetRepository;
+import com.leads.leadsgen.repository.PageValidatorRepository;
+import com.leads.leadsgen.service.impl.CoalescingHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -19,107 +25,316 @@ public class CrawlService {
 
     private final HttpClient httpClient;
 
+    private final RobotsService robotsService;
+
+    private final PageSnapshotStore snapshotStore;
+
     @Autowired
     private AssetRepository assetRepository;
 
+    @Autowired
+    private PageValidatorRepository pageValidatorRepository;
+
     @Autowired
     private SseService sseService;
 
-    public CrawlService(HttpClient httpClient) {
+    @Autowired
+    private CrawlScheduler crawlScheduler;
+
+    @Value("${crawl.timeout-seconds:30}")
+    private long crawlTimeoutSeconds = 30;
+
+    @Value("${crawl.per-host-parallelism:4}")
+    private int perHostParallelism = 4;
+
+    @Value("${crawl.sitemap.max-urls:20}")
+    private int maxSitemapUrls = 20;
+
+    @Value("${crawl.sitemap.sample:true}")
+    private boolean sampleSitemapUrls = true;
+
+    @Value("${crawl.sitemap.max-sitemaps:50}")
+    private int maxSitemaps = 50;
+
+    public CrawlService(HttpClient httpClient, PageSnapshotStore snapshotStore) {
+        this(httpClient, new RobotsService(httpClient), snapshotStore);
+    }
+
+    @Autowired
+    public CrawlService(HttpClient httpClient, RobotsService robotsService, PageSnapshotStore snapshotStore) {
         this.httpClient = httpClient;
+        this.robotsService = robotsService;
+        this.snapshotStore = snapshotStore;
     }
 
     /**
-     * Crawl a list of domains concurrently
+     * Queue a list of domains on the crawl scheduler
      * @param domains List of domains to crawl
      */
     public void crawlDomains(List<String> domains) {
-        domains.forEach(domain -> {
-            Thread thread = new Thread(() -> crawlDomain(domain));
-            thread.start();
-        });
+        long notBefore = System.nanoTime() + TimeUnit.SECONDS.toNanos(1); // So SSE client can connect
+        domains.forEach(domain -> crawlScheduler.submit(domain, () -> crawlDomain(domain, notBefore)));
+    }
+
+    /**
+     * Get the current crawl scheduler stats
+     * @return Queue depth, active crawls and throughput
+     */
+    public CrawlScheduler.Stats getStats() {
+        return crawlScheduler.getStats();
     }
 
     /**
      * Crawl a single domain
      * @param domain Domain to crawl
+     * @param notBefore System.nanoTime() before which no status is broadcast
      */
-    private void crawlDomain(String domain) {
+    private void crawlDomain(String domain, long notBefore) {
         try {
-            Thread.sleep(1000); // So SSE client can connect
+            long delay = notBefore - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
             sseService.broadcastStatus(domain, "Crawling", Map.of());
 
-            Asset asset = crawlWithTimeout("https://" + domain, 30, TimeUnit.SECONDS);
+            // Recrawls of a known domain send the stored validators so unchanged pages are not downloaded again
+            Optional<Asset> existingAsset = assetRepository.findByDomain(domain);
+            Map<String, PageValidator> validators = new ConcurrentHashMap<>();
+            existingAsset.ifPresent(existing -> pageValidatorRepository.findByAssetId(existing.getId())
+                    .forEach(validator -> validators.put(validator.getUrl(), validator)));
+
+            Asset asset = crawlWithTimeout("https://" + domain, validators, crawlTimeoutSeconds, TimeUnit.SECONDS);
 
             Set<String> uniqueUrls = new LinkedHashSet<>(asset.getUrls());
             asset.setUrls(new ArrayList<>(uniqueUrls));
 
-            if (assetRepository.findByDomain(domain).isPresent()) {
-                sseService.broadcastStatus(domain, "Duplicate", Map.of());
+            if (existingAsset.isPresent()) {
+                Asset existing = existingAsset.get();
+                existing.setUrls(asset.getUrls());
+                existing.setEmails(asset.getEmails());
+                existing.setPhones(asset.getPhones());
+                existing.setPartial(asset.isPartial());
+                saveValidators(assetRepository.save(existing), validators);
+                sseService.broadcastStatus(domain, asset.isPartial() ? "Partial" : "Updated", Map.of("suggestedEmail", getSuggestedEmail(existing)));
                 return;
             }
 
-            assetRepository.save(asset);
-            sseService.broadcastStatus(domain, "Completed", Map.of("suggestedEmail", getSuggestedEmail(asset)));
+            saveValidators(assetRepository.save(asset), validators);
+            sseService.broadcastStatus(domain, asset.isPartial() ? "Partial" : "Completed", Map.of("suggestedEmail", getSuggestedEmail(asset)));
         } catch (CrawlerException.Timeout e) {
-            Asset failedAsset = new Asset(domain, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null);
-            assetRepository.save(failedAsset);
+            if (assetRepository.findByDomain(domain).isEmpty()) {
+                Asset failedAsset = new Asset(domain, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null);
+                assetRepository.save(failedAsset);
+            }
             sseService.broadcastStatus(domain, "Timeout", Map.of());
         }
         catch (Exception e) {
-            Asset failedAsset = new Asset(domain, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), null, null);
-            assetRepository.save(failedAsset);
+            if (assetRepository.findByDomain(domain).isEmpty()) {
+                Asset failedAsset = new Asset(domain, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), null, null);
+                assetRepository.save(failedAsset);
+            }
             sseService.broadcastStatus(domain, "Error", Map.of("error", e.getMessage()));
         }
     }
 
     /**
-     * Crawl a single domain and return the asset
+     * Link the validators of a crawl to its asset and persist them
+     * @param asset Saved asset the pages belong to
+     * @param validators Map of URLs to validators
+     */
+    private void saveValidators(Asset asset, Map<String, PageValidator> validators) {
+        validators.values().forEach(validator -> validator.setAsset(asset));
+        pageValidatorRepository.saveAll(validators.values());
+    }
+
+    /**
+     * Crawl a single domain and return the asset. Every fetched page is written to the page snapshot store.
      * @param url URL to crawl
      * @return Asset object representing the crawled domain
      * @throws CrawlerException if an error occurs during the crawl
      */
     public Asset crawl(String url) throws CrawlerException {
-        List<String> urls = getUrls(url);
-
-        if (!urls.contains(url)) {
-            urls.add(url);
-        }
+        return crawl(url, new ConcurrentHashMap<>());
+    }
 
-        Map<String, String> htmlContents = new HashMap<>();
+    /**
+     * Crawl a single domain, revalidating pages that were fetched before instead of downloading them again
+     * @param url URL to crawl
+     * @param validators Map of URLs to validators of a previous crawl, updated with the validators of this crawl
+     * @return Asset object representing the crawled domain
+     * @throws CrawlerException if an error occurs during the crawl
+     */
+    public Asset crawl(String url, Map<String, PageValidator> validators) throws CrawlerException {
+        return crawl(url, validators, Instant.now().plusSeconds(crawlTimeoutSeconds));
+    }
 
-        for (String url_ : urls) {
+    /**
+     * Crawl a single domain until a deadline. Every request is bounded by the time left, and if the
+     * deadline passes the pages fetched so far are returned as a partial asset. Requests for the same
+     * URL within the crawl are sent once.
+     * @param url URL to crawl
+     * @param validators Map of URLs to validators of a previous crawl, updated with the validators of this crawl
+     * @param deadline Instant by which the crawl must be finished
+     * @return Asset object representing the crawled domain, marked partial if not all pages were fetched in time.
+     * Without pages if robots.txt disallows the URL, and then also marked partial if robots.txt could not be read.
+     * @throws CrawlerException.Timeout if the deadline passed before any page was fetched
+     * @throws CrawlerException if no page could be fetched
+     */
+    public Asset crawl(String url, Map<String, PageValidator> validators, Instant deadline) throws CrawlerException {
+        HttpClient session = new CoalescingHttpClient(httpClient);
+        RobotsRules robotsRules = robotsService.getRules(url, remaining(deadline));
+        List<String> urls = getUrls(session, url, robotsRules, validators, deadline);
 
-            if (Thread.currentThread().isInterrupted()) {
-                System.err.println("Thread was interrupted. Aborting crawl for URL: " + url);
-                break;
+        if (urls.isEmpty()) {
+            if (remaining(deadline).isZero()) {
+                throw new CrawlerException.Timeout("Crawl timed out for URL: " + url);
             }
+            Asset asset = new Asset(getDomainFromUrl(url), urls, new ArrayList<>(), new ArrayList<>(), null, new HashMap<>());
+            asset.setPartial(!robotsRules.isReachable());
+            return asset;
+        }
 
-            try {
-                Map<String, String> html = httpClient.getHtml(url_);
-                if (!html.isEmpty() && html.get(url_) != null) {
-                    htmlContents.put(url_, html.get(url_));
-                }
-            } catch (Exception e) {
-                System.err.println("Error processing URL: " + url_ + ". Skipping... " + e.getMessage());
+        Map<String, String> htmlContents = new ConcurrentHashMap<>();
+        Semaphore hostPermits = new Semaphore(perHostParallelism);
+        boolean finished;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (String url_ : urls) {
+                executor.execute(() -> fetchPage(session, url_, htmlContents, validators, hostPermits, deadline));
             }
+            executor.shutdown();
+            finished = executor.awaitTermination(remaining(deadline).toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        } finally {
+            executor.shutdownNow();
         }
 
-        if (htmlContents.isEmpty()) {
+        boolean partial = !finished || remaining(deadline).isZero();
+
+        // Copy so pages completing after the deadline do not change the result
+        Map<String, String> fetchedContents = new HashMap<>(htmlContents);
+
+        if (fetchedContents.isEmpty()) {
+            if (partial) {
+                throw new CrawlerException.Timeout("Crawl timed out for URL: " + url);
+            }
             throw new CrawlerException("No HTML content found for domain: " + getDomainFromUrl(url));
         }
 
-        Set<String> emails = getEmails(htmlContents);
-        Set<String> phones = getPhones(htmlContents);
+        ContactExtractor contactExtractor = new ContactExtractor();
+        fetchedContents.values().forEach(contactExtractor::scan);
 
-        return new Asset(
+        Asset asset = new Asset(
                 getDomainFromUrl(url),
                 urls,
-                new ArrayList<>(emails),
-                new ArrayList<>(phones),
+                new ArrayList<>(contactExtractor.getEmails()),
+                new ArrayList<>(contactExtractor.getPhones()),
                 null,
-                htmlContents
+                fetchedContents
         );
+        asset.setPartial(partial);
+        return asset;
+    }
+
+    /**
+     * Get the time left until a deadline
+     * @param deadline Deadline
+     * @return Time left, zero if the deadline has passed
+     */
+    private Duration remaining(Instant deadline) {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * Fetch a single page, add it to the HTML contents and snapshot it once a host permit is free.
+     * If a previous snapshot and validators are stored a conditional request is sent and
+     * the snapshot is reused when the server answers 304 Not Modified.
+     * @param client Client of the crawl session
+     * @param url URL to fetch
+     * @param htmlContents Map of URLs to HTML content to add the page to
+     * @param validators Map of URLs to validators, updated with the response
+     * @param hostPermits Permits limiting concurrent requests to the host
+     * @param deadline Instant by which the page must be fetched
+     */
+    private void fetchPage(HttpClient client, String url, Map<String, String> htmlContents, Map<String, PageValidator> validators, Semaphore hostPermits, Instant deadline) {
+        try {
+            if (!hostPermits.tryAcquire(remaining(deadline).toNanos(), TimeUnit.NANOSECONDS)) {
+                System.err.println("Crawl deadline passed. Skipping URL: " + url);
+                return;
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Thread was interrupted. Skipping URL: " + url);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            PageValidator validator = validators.get(url);
+            FetchResult result = fetchHtml(client, url, validator, deadline);
+
+            String html = result.body();
+            if (html == null) {
+                return;
+            }
+            htmlContents.put(url, html);
+            String contentHash = snapshotStore.put(getDomainFromUrl(url), url, html);
+
+            if (validator == null) {
+                validator = new PageValidator(url);
+                validators.put(url, validator);
+            }
+            updateValidator(validator, result, contentHash);
+        } catch (Exception e) {
+            System.err.println("Error processing URL: " + url + ". Skipping... " + e.getMessage());
+        } finally {
+            hostPermits.release();
+        }
+    }
+
+    /**
+     * Fetch the HTML of a page, sending a conditional request if a previous snapshot and validators
+     * are stored
+     * @param client Client of the crawl session
+     * @param url URL to fetch
+     * @param validator Validator of a previous fetch, or null
+     * @param deadline Instant by which the page must be fetched
+     * @return The response, with the stored snapshot as body if the server answered 304 Not Modified
+     * @throws Exception if the request fails
+     */
+    private FetchResult fetchHtml(HttpClient client, String url, PageValidator validator, Instant deadline) throws Exception {
+        String cachedBody = validator != null && validator.hasValidators() && validator.getContentHash() != null
+                ? snapshotStore.read(validator.getContentHash())
+                : null;
+
+        if (cachedBody == null) {
+            return client.getConditional(url, null, null, remaining(deadline));
+        }
+
+        FetchResult result = client.getConditional(url, validator.getEtag(), validator.getLastModified(), remaining(deadline));
+        return result.isNotModified()
+                ? new FetchResult(result.statusCode(), cachedBody, result.etag(), result.lastModified())
+                : result;
+    }
+
+    /**
+     * Store the validators and content hash of a response
+     * @param validator Validator to update
+     * @param result Response of the request
+     * @param contentHash Hash of the current snapshot of the page
+     */
+    private void updateValidator(PageValidator validator, FetchResult result, String contentHash) {
+        if (result.etag() != null || !result.isNotModified()) {
+            validator.setEtag(result.etag());
+        }
+        if (result.lastModified() != null || !result.isNotModified()) {
+            validator.setLastModified(result.lastModified());
+        }
+        validator.setContentHash(contentHash);
+        validator.setFetchedAt(LocalDateTime.now());
     }
 
     /**
@@ -131,43 +346,51 @@ public class CrawlService {
      * @throws CrawlerException if an error occurs during the crawl
      */
     public Asset crawlWithTimeout(String url, long timeout, TimeUnit unit) throws CrawlerException {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        try {
-            Future<Asset> future = executor.submit(() -> crawl(url));
+        return crawlWithTimeout(url, new ConcurrentHashMap<>(), timeout, unit);
+    }
 
-            return future.get(timeout, unit);
-        } catch (TimeoutException te) {
-            throw new CrawlerException.Timeout("Crawl timed out for URL: " + url);
-        } catch (ExecutionException | InterruptedException e) {
-            throw new CrawlerException("Error during crawl for URL: " + url, e);
-        } finally {
-            executor.shutdownNow();
-        }
+    /**
+     * Crawl a single domain with a specified timeout, revalidating previously fetched pages
+     * @param url URL to crawl
+     * @param validators Map of URLs to validators of a previous crawl
+     * @param timeout Timeout duration
+     * @param unit Timeout unit
+     * @return Asset object representing the crawled domain
+     * @throws CrawlerException if an error occurs during the crawl
+     */
+    public Asset crawlWithTimeout(String url, Map<String, PageValidator> validators, long timeout, TimeUnit unit) throws CrawlerException {
+        return crawl(url, validators, Instant.now().plus(Duration.of(timeout, unit.toChronoUnit())));
     }
 
     /**
      * Get a list of URLs to crawl for a given domain
+     * @param client Client of the crawl session
      * @param url URL to crawl
-     * @return List of URLs to crawl
+     * @param robotsRules Robots rules of the domain
+     * @param validators Map of URLs to validators of a previous crawl
+     * @param deadline Instant by which the sitemaps must be read
+     * @return List of URLs to crawl, including the URL itself unless robots.txt disallows it
      */
-    private List<String> getUrls(String url) {
+    private List<String> getUrls(HttpClient client, String url, RobotsRules robotsRules, Map<String, PageValidator> validators, Instant deadline) {
+        boolean urlAllowed = robotsRules.isAllowedUrl(url);
+
         List<String> urls = new ArrayList<>();
-        List<String> sitemapUrls = getSitemap(url);
+        List<String> sitemapUrls = getSitemap(client, url, robotsRules, deadline);
 
-        if (!sitemapUrls.isEmpty() && sitemapUrls.size() <= 20) {
-            urls.addAll(sitemapUrls);
-        }
+        urls.addAll(sitemapUrls);
 
-        if (urls.isEmpty()) {
-            urls.addAll(getPageLinks(url));
+        if (urls.isEmpty() && urlAllowed) {
+            urls.addAll(getPageLinks(client, url, validators.get(url), deadline));
         }
 
-        List<String> disallowedUrls = getDisallowedUrls(url);
-        urls.removeAll(disallowedUrls);
-
         urls.removeIf(url_ -> !getDomainFromUrl(url_).equals(getDomainFromUrl(url)));
+        urls.removeIf(url_ -> !robotsRules.isAllowedUrl(url_));
 
-        return deduplicateUrls(urls);
+        List<String> uniqueUrls = deduplicateUrls(urls);
+        if (urlAllowed && !uniqueUrls.contains(url)) {
+            uniqueUrls.add(url);
+        }
+        return uniqueUrls;
     }
 
     /**
@@ -188,90 +411,63 @@ public class CrawlService {
     }
 
     /**
-     * Get sitemap URLs for a given domain
+     * Get sitemap URLs for a given domain. Sitemaps are parsed as streams and nested
+     * sitemap indexes are followed, keeping at most a sample of the allowed page URLs.
+     * @param client Client of the crawl session
      * @param url Domain URL
+     * @param robotsRules Robots rules of the domain
+     * @param deadline Instant by which the sitemaps must be read
      * @return List of sitemap URLs
      */
-    private List<String> getSitemap(String url) {
-        List<String> sitemapUrls = new ArrayList<>();
+    private List<String> getSitemap(HttpClient client, String url, RobotsRules robotsRules, Instant deadline) {
+        SitemapSampler sampler = new SitemapSampler(maxSitemapUrls, sampleSitemapUrls);
         Set<String> visitedSitemaps = new HashSet<>();
-        Queue<String> sitemapQueue = new LinkedList<>();
-
-        try {
-            String robotsUrl = url + "/robots.txt";
-            String robotsContent = httpClient.get(robotsUrl);
-
-            String initialSitemapUrl = Arrays.stream(robotsContent.split("\n"))
-                    .filter(line -> line.startsWith("Sitemap:"))
-                    .map(line -> line.split("Sitemap:")[1].trim())
-                    .findFirst()
-                    .orElse(url + "/sitemap.xml");
+        Queue<String> sitemapQueue = new LinkedList<>(robotsRules.getSitemaps());
 
-            sitemapQueue.add(initialSitemapUrl);
-        } catch (Exception e) {
+        if (sitemapQueue.isEmpty()) {
             sitemapQueue.add(url + "/sitemap.xml");
         }
 
-        while (!sitemapQueue.isEmpty()) {
+        String domain = getDomainFromUrl(url);
+        Consumer<String> pageConsumer = pageUrl -> {
+            if (getDomainFromUrl(pageUrl).equals(domain) && robotsRules.isAllowedUrl(pageUrl)) {
+                sampler.accept(pageUrl);
+            }
+        };
+
+        while (!sitemapQueue.isEmpty() && visitedSitemaps.size() < maxSitemaps && Instant.now().isBefore(deadline)) {
             String currentSitemapUrl = sitemapQueue.poll();
-            if (visitedSitemaps.contains(currentSitemapUrl)) {
+            if (!visitedSitemaps.add(currentSitemapUrl)) {
                 continue;
             }
-            visitedSitemaps.add(currentSitemapUrl);
-
-            try {
-                String sitemapContent = httpClient.get(currentSitemapUrl);
-
-                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder builder = factory.newDocumentBuilder();
-                org.w3c.dom.Document document = builder.parse(new ByteArrayInputStream(sitemapContent.getBytes()));
-
-                org.w3c.dom.NodeList locNodes = document.getElementsByTagName("loc");
-                for (int i = 0; i < locNodes.getLength(); i++) {
-                    String loc = locNodes.item(i).getTextContent();
-                    if (loc.endsWith(".xml")) {
-                        sitemapQueue.add(loc);
-                    } else {
-                        sitemapUrls.add(loc);
-                    }
-                }
+
+            try (InputStream sitemapContent = client.getStream(currentSitemapUrl, remaining(deadline))) {
+                SitemapParser.parse(sitemapContent, pageConsumer, sitemapQueue::add);
             } catch (Exception e) {
                 System.err.println("Error processing sitemap: " + currentSitemapUrl + ". Skipping...");
             }
         }
 
-        return sitemapUrls;
-    }
-
-    /**
-     * Get disallowed URLs from robots.txt for a given domain
-     * @param url Domain URL
-     * @return List of disallowed URLs
-     */
-    private List<String> getDisallowedUrls(String url) {
-        List<String> disallowedUrls = new ArrayList<>();
-        try {
-            String robotsContent = httpClient.get(url + "/robots.txt");
-            Arrays.stream(robotsContent.split("\n"))
-                    .filter(line -> line.startsWith("Disallow:"))
-                    .map(line -> line.split("Disallow:")[1].trim())
-                    .forEach(disallowedUrls::add);
-        } catch (Exception e) {
-            System.err.println("Error fetching robots.txt: " + e.getMessage());
+        if (sampler.getSeen() > maxSitemapUrls) {
+            System.out.println("Sampled " + maxSitemapUrls + " of " + sampler.getSeen() + " sitemap URLs for: " + domain);
         }
-        return disallowedUrls;
+
+        return sampler.getUrls();
     }
 
     /**
-     * Get links from html from a given URL
+     * Get links from html from a given URL. The page is fetched the same way as in the crawl,
+     * so the session serves the crawl of the same page from this request.
+     * @param client Client of the crawl session
      * @param url URL to fetch links from
+     * @param validator Validator of a previous fetch of the page, or null
+     * @param deadline Instant by which the page must be fetched
      * @return List of page links
      */
-    private List<String> getPageLinks(String url) {
+    private List<String> getPageLinks(HttpClient client, String url, PageValidator validator, Instant deadline) {
         List<String> links = new ArrayList<>();
         try {
-            Map<String, String> htmlContent = httpClient.getHtml(url);
-            String html = htmlContent.getOrDefault(url, "");
+            String html = Objects.requireNonNullElse(fetchHtml(client, url, validator, deadline).body(), "");
             Matcher matcher = Pattern.compile("<a\\s+(?:[^>]*?\\s+)?href=([\"'])(.*?)\\1").matcher(html);
 
             while (matcher.find()) {
@@ -287,44 +483,6 @@ public class CrawlService {
         return links;
     }
 
-    /**
-     * Get emails from HTML content
-     * @param htmlContents Map of URLs to HTML content
-     * @return Set of emails
-     */
-    private Set<String> getEmails(Map<String, String> htmlContents) {
-        Set<String> emails = new HashSet<>();
-        Pattern emailPattern = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
-        for (String html : htmlContents.values()) {
-            Matcher matcher = emailPattern.matcher(html);
-            while (matcher.find()) {
-                emails.add(matcher.group());
-            }
-        }
-        return emails;
-    }
-
-    /**
-     * Get phone numbers from HTML content
-     * @param htmlContents Map of URLs to HTML content
-     * @return Set of phone numbers
-     */
-    private Set<String> getPhones(Map<String, String> htmlContents) {
-        Set<String> phones = new HashSet<>();
-        Pattern phonePattern = Pattern.compile(
-                "(?:\\+\\d{1,3}[-.\\s]?)?" +
-                        "(?:\\(\\d{1,4}\\)|\\d{1,4})?" +
-                        "\\d{3,4}[-.\\s]?\\d{2,4}[-.\\s]?\\d{2,4}"
-        );
-        for (String html : htmlContents.values()) {
-            Matcher matcher = phonePattern.matcher(html);
-            while (matcher.find()) {
-                phones.add(matcher.group());
-            }
-        }
-        return phones;
-    }
-
     /**
      * Get domain from URL
      * @param url URL to extract domain from
@@ -0,0 +1,23 @@
+package com.leads.leadsgen.service;
+
+/**
+ * Result of a conditional GET request
+ *
+ * @param statusCode   HTTP status code
+ * @param body         Response body, null if the page was not modified
+ * @param etag         ETag header of the response
+ * @param lastModified Last-Modified header of the response
+ */
+public record FetchResult(int statusCode, String body, String etag, String lastModified) {
+
+    public static final int NOT_MODIFIED = 304;
+
+    /**
+     * Check whether the server answered 304 Not Modified
+     *
+     * @return True if the cached copy is still valid
+     */
+    public boolean isNotModified() {
+        return statusCode == NOT_MODIFIED;
+    }
+}
@@ -1,6 +1,9 @@
 package com.leads.leadsgen.service;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface HttpClient {
     /**
@@ -20,4 +23,55 @@ public interface HttpClient {
      * @throws Exception if the request fails
      */
     Map<String, String> getHtml(String url) throws Exception;
-}
\ No newline at end of file
+
+    /**
+     * Sends a GET request to the given URL and returns the response body as a stream.
+     * The caller is responsible for closing the stream.
+     *
+     * @param url the URL to send the GET request to
+     * @return the response body as a stream
+     * @throws Exception if the request fails
+     */
+    InputStream getStream(String url) throws Exception;
+
+    /**
+     * Sends a GET request to the given URL and returns the response body as a stream.
+     * The caller is responsible for closing the stream. Reading the stream fails once the timeout ends.
+     *
+     * @param url     the URL to send the GET request to
+     * @param timeout the maximum time the whole request may take, including reading the body
+     * @return the response body as a stream
+     * @throws Exception if the request fails or does not complete within the timeout
+     */
+    InputStream getStream(String url, Duration timeout) throws Exception;
+
+    /**
+     * Sends a conditional GET request to the given URL. The validators of a previous
+     * response are sent as If-None-Match and If-Modified-Since headers.
+     *
+     * @param url          the URL to send the GET request to
+     * @param etag         the ETag of the cached copy, or null
+     * @param lastModified the Last-Modified value of the cached copy, or null
+     * @param timeout      the maximum time the whole request may take, including reading the body
+     * @return the status, body and validators of the response; the body is null on 304 Not Modified
+     * @throws com.leads.leadsgen.exception.HttpStatusException if the server answers with an error status
+     * @throws Exception if the request fails or does not complete within the timeout
+     */
+    FetchResult getConditional(String url, String etag, String lastModified, Duration timeout) throws Exception;
+
+    /**
+     * Sends a GET request to the given URL without blocking the caller.
+     *
+     * @param url the URL to send the GET request to
+     * @return a future completed with the response body, or exceptionally if the request fails
+     */
+    CompletableFuture<String> getAsync(String url);
+
+    /**
+     * Fetches the HTML content of the given URL without blocking the caller.
+     *
+     * @param url the URL to fetch the HTML content from
+     * @return a future completed with a map containing the URL as the key and the HTML content as the value
+     */
+    CompletableFuture<Map<String, String>> getHtmlAsync(String url);
+}
@@ -0,0 +1,227 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.util.UrlUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Checks whether links are broken. Links are deduplicated by normalized URL and checked
+ * concurrently, with a limit on concurrent requests per host that holds across all scans.
+ * HTTP statuses are cached for all scans until they expire, failures to connect or read only
+ * briefly, and concurrent scans asking for the same link share one request.
+ */
+@Service
+public class LinkCheckService {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; leadsgen/1.0)";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final java.net.http.HttpClient client;
+    private final Duration timeout;
+    private final int perHostParallelism;
+    private final long ttlNanos;
+    private final long failureTtlNanos;
+    private final Map<String, CacheEntry> cache;
+    private final Map<String, HostPermits> hostPermits = new HashMap<>();
+
+    public LinkCheckService() {
+        this(5000, 4, 60, 60, 50000);
+    }
+
+    @Autowired
+    public LinkCheckService(
+            @Value("${link.check.timeout-ms:5000}") long timeoutMs,
+            @Value("${link.check.per-host-parallelism:4}") int perHostParallelism,
+            @Value("${link.check.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${link.check.cache.failure-ttl-seconds:60}") long failureTtlSeconds,
+            @Value("${link.check.cache.max-entries:50000}") int maxEntries) {
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.perHostParallelism = perHostParallelism;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.failureTtlNanos = TimeUnit.SECONDS.toNanos(failureTtlSeconds);
+        this.client = java.net.http.HttpClient.newBuilder()
+                .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Check a set of links concurrently
+     *
+     * @param urls Links to check, duplicates are checked once
+     * @return Map of normalized URLs to true if the link is broken
+     */
+    public Map<String, Boolean> checkAll(Collection<String> urls) {
+        Map<String, CompletableFuture<Boolean>> results = new LinkedHashMap<>();
+        long now = System.nanoTime();
+
+        for (String url : urls) {
+            String normalized = UrlUtils.normalize(url);
+            if (results.containsKey(normalized)) {
+                continue;
+            }
+
+            CacheEntry entry;
+            boolean check = false;
+            synchronized (cache) {
+                entry = cache.get(normalized);
+                if (entry == null || now > entry.expiresAt) {
+                    entry = new CacheEntry();
+                    cache.put(normalized, entry);
+                    check = true;
+                }
+            }
+
+            if (check) {
+                CacheEntry created = entry;
+                executor.execute(() -> check(url, normalized, created));
+            }
+            results.put(normalized, entry.broken);
+        }
+
+        Map<String, Boolean> brokenLinks = new LinkedHashMap<>();
+        results.forEach((url, result) -> brokenLinks.put(url, result.join()));
+        return brokenLinks;
+    }
+
+    /**
+     * Check a single link
+     *
+     * @param url Link to check
+     * @return True if the link is broken, false otherwise
+     */
+    public boolean isBroken(String url) {
+        return checkAll(List.of(url)).get(UrlUtils.normalize(url));
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Check a link while holding a permit for its host and complete its cache entry. A status
+     * is cached for the full TTL, a failed request for the failure TTL, and an interrupted check
+     * is not cached at all.
+     */
+    private void check(String url, String normalized, CacheEntry entry) {
+        String host = getHost(url);
+        HostPermits permits = acquire(host);
+        try {
+            permits.semaphore.acquire();
+            boolean broken;
+            try {
+                broken = isBrokenResponse(url);
+            } finally {
+                permits.semaphore.release();
+            }
+            complete(normalized, entry, broken, ttlNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete(normalized, entry, true, 0);
+        } catch (Exception e) {
+            complete(normalized, entry, true, failureTtlNanos);
+        } finally {
+            release(host, permits);
+        }
+    }
+
+    private void complete(String normalized, CacheEntry entry, boolean broken, long ttl) {
+        synchronized (cache) {
+            if (ttl > 0) {
+                entry.expiresAt = System.nanoTime() + ttl;
+            } else {
+                cache.remove(normalized, entry);
+            }
+        }
+        entry.broken.complete(broken);
+    }
+
+    /**
+     * Get the permits of a host, shared by every check of that host that is running or
+     * waiting, and dropped once the last of them is done
+     */
+    private HostPermits acquire(String host) {
+        synchronized (hostPermits) {
+            HostPermits permits = hostPermits.computeIfAbsent(host, key -> new HostPermits(perHostParallelism));
+            permits.users++;
+            return permits;
+        }
+    }
+
+    private void release(String host, HostPermits permits) {
+        synchronized (hostPermits) {
+            if (--permits.users == 0) {
+                hostPermits.remove(host);
+            }
+        }
+    }
+
+    /**
+     * Send a HEAD request, falling back to a GET for the first byte when the server does
+     * not accept HEAD
+     *
+     * @param url Link to check
+     * @return True if the server answered with an error status
+     * @throws Exception If the request could not be sent or the response not read
+     */
+    private boolean isBrokenResponse(String url) throws Exception {
+        int status = send(url, "HEAD", HttpRequest.BodyPublishers.noBody(), null);
+        if (status == 403 || status == 405 || status == 501) {
+            status = send(url, "GET", HttpRequest.BodyPublishers.noBody(), "bytes=0-0");
+        }
+        // 416 means the range was rejected, not the resource
+        return status >= 400 && status != 416;
+    }
+
+    private int send(String url, String method, HttpRequest.BodyPublisher body, String range) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT)
+                .method(method, body);
+        if (range != null) {
+            request.header("Range", range);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private String getHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static class CacheEntry {
+        private final CompletableFuture<Boolean> broken = new CompletableFuture<>();
+        // Written under the cache lock once the check completes, running checks never expire
+        private long expiresAt = Long.MAX_VALUE;
+    }
+
+    private static class HostPermits {
+        private final Semaphore semaphore;
+        private int users;
+
+        private HostPermits(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+}
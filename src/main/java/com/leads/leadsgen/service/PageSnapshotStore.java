@@ -0,0 +1,304 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.util.HashUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk store for crawled HTML. Page bodies are gzip compressed and stored once per
+ * distinct content under their SHA-256 hash, so identical pages across URLs and recrawls
+ * share one file. A memory-mapped open-addressing hash table maps a 64-bit hash of
+ * domain + URL to the content hash of the latest snapshot of that page.
+ */
+@Service
+public class PageSnapshotStore {
+
+    private static final int MAGIC = 0x4c475349; // LGSI
+    private static final int HEADER_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final int SLOT_BYTES = Long.BYTES + HASH_BYTES;
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final Path objectsDir;
+    private final Path indexFile;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    @Autowired
+    public PageSnapshotStore(@Value("${snapshot.store.path:data/snapshots}") String path) {
+        this(Path.of(path), DEFAULT_CAPACITY);
+    }
+
+    PageSnapshotStore(Path root, int initialCapacity) {
+        this.objectsDir = root.resolve("objects");
+        this.indexFile = root.resolve("index.bin");
+        try {
+            Files.createDirectories(objectsDir);
+            if (Files.exists(indexFile)) {
+                openIndex();
+            } else {
+                createIndex(indexFile, Integer.highestOneBit(Math.max(initialCapacity, 16) - 1) << 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open page snapshot store at: " + root, e);
+        }
+    }
+
+    /**
+     * Store a snapshot of a page
+     *
+     * @param domain Domain of the page
+     * @param url    URL of the page
+     * @param html   HTML content of the page
+     * @return Hex encoded SHA-256 hash of the content
+     */
+    public String put(String domain, String url, String html) {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        String contentHash = HashUtils.sha256(bytes);
+        writeObject(contentHash, bytes);
+        putIndex(keyHash(domain, url), HexFormat.of().parseHex(contentHash));
+        return contentHash;
+    }
+
+    /**
+     * Get the latest snapshot of a page
+     *
+     * @param domain Domain of the page
+     * @param url    URL of the page
+     * @return HTML content, or null if the page has no snapshot
+     */
+    public String get(String domain, String url) {
+        String contentHash = getContentHash(domain, url);
+        return contentHash != null ? read(contentHash) : null;
+    }
+
+    /**
+     * Get the latest snapshots of a list of pages
+     *
+     * @param domain Domain of the pages
+     * @param urls   URLs of the pages
+     * @return Map of URLs to HTML content, containing only the pages that have a snapshot
+     */
+    public Map<String, String> getAll(String domain, Collection<String> urls) {
+        Map<String, String> htmlContents = new LinkedHashMap<>();
+        for (String url : urls) {
+            String html = get(domain, url);
+            if (html != null) {
+                htmlContents.put(url, html);
+            }
+        }
+        return htmlContents;
+    }
+
+    /**
+     * Get the content hash of the latest snapshot of a page
+     *
+     * @param domain Domain of the page
+     * @param url    URL of the page
+     * @return Hex encoded SHA-256 hash, or null if the page has no snapshot
+     */
+    public synchronized String getContentHash(String domain, String url) {
+        long key = keyHash(domain, url);
+        int mask = capacity - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            long slotKey = index.getLong(slotOffset(slot));
+            if (slotKey == 0) {
+                return null;
+            }
+            if (slotKey == key) {
+                byte[] hash = new byte[HASH_BYTES];
+                index.get(slotOffset(slot) + Long.BYTES, hash);
+                return HexFormat.of().formatHex(hash);
+            }
+        }
+    }
+
+    /**
+     * Read stored content by its hash
+     *
+     * @param contentHash Hex encoded SHA-256 hash of the content
+     * @return HTML content, or null if no such content is stored
+     */
+    public String read(String contentHash) {
+        Path object = objectPath(contentHash);
+        if (!Files.exists(object)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(object))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read page snapshot: " + contentHash, e);
+        }
+    }
+
+    /**
+     * Get the number of pages in the index
+     *
+     * @return Number of indexed pages
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        index.force();
+        indexChannel.close();
+    }
+
+    /**
+     * Write content to its object file unless it is already stored. The file is written
+     * to a temporary file first so readers never see a partial object.
+     *
+     * @param contentHash Hex encoded hash of the content
+     * @param bytes       Content to write
+     */
+    private void writeObject(String contentHash, byte[] bytes) {
+        Path object = objectPath(contentHash);
+        if (Files.exists(object)) {
+            return;
+        }
+        try {
+            Files.createDirectories(object.getParent());
+            Path temp = Files.createTempFile(object.getParent(), contentHash, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                out.write(bytes);
+            }
+            Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write page snapshot: " + contentHash, e);
+        }
+    }
+
+    private Path objectPath(String contentHash) {
+        return objectsDir.resolve(contentHash.substring(0, 2)).resolve(contentHash + ".gz");
+    }
+
+    private synchronized void putIndex(long key, byte[] contentHash) {
+        if ((size + 1) * 4L > capacity * 3L) {
+            resize();
+        }
+        if (insert(index, capacity, key, contentHash)) {
+            size++;
+            index.putInt(12, size);
+        }
+    }
+
+    /**
+     * Insert or replace an entry in a mapped table
+     *
+     * @return True if a new entry was added
+     */
+    private static boolean insert(MappedByteBuffer table, int tableCapacity, long key, byte[] contentHash) {
+        int mask = tableCapacity - 1;
+        for (int slot = (int) key & mask; ; slot = (slot + 1) & mask) {
+            int offset = slotOffset(slot);
+            long slotKey = table.getLong(offset);
+            if (slotKey == 0 || slotKey == key) {
+                table.putLong(offset, key);
+                table.put(offset + Long.BYTES, contentHash);
+                return slotKey == 0;
+            }
+        }
+    }
+
+    /**
+     * Double the table. The new table is written next to the old one and moved over it,
+     * so a crash during the resize leaves the old index intact.
+     */
+    private void resize() {
+        int newCapacity = capacity * 2;
+        Path temp = indexFile.resolveSibling("index.bin.tmp");
+        try {
+            FileChannel newChannel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer newIndex = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, tableBytes(newCapacity));
+            writeHeader(newIndex, newCapacity, size);
+
+            byte[] hash = new byte[HASH_BYTES];
+            for (int slot = 0; slot < capacity; slot++) {
+                long key = index.getLong(slotOffset(slot));
+                if (key != 0) {
+                    index.get(slotOffset(slot) + Long.BYTES, hash);
+                    insert(newIndex, newCapacity, key, hash);
+                }
+            }
+            newIndex.force();
+            Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            indexChannel.close();
+            indexChannel = newChannel;
+            index = newIndex;
+            capacity = newCapacity;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not resize page snapshot index", e);
+        }
+    }
+
+    private void createIndex(Path file, int newCapacity) throws IOException {
+        indexChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, tableBytes(newCapacity));
+        writeHeader(index, newCapacity, 0);
+        capacity = newCapacity;
+        size = 0;
+    }
+
+    private void openIndex() throws IOException {
+        indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a page snapshot index: " + indexFile);
+        }
+        capacity = header.getInt(8);
+        size = header.getInt(12);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, tableBytes(capacity));
+    }
+
+    private static void writeHeader(MappedByteBuffer table, int tableCapacity, int tableSize) {
+        table.putInt(0, MAGIC);
+        table.putInt(4, 1);
+        table.putInt(8, tableCapacity);
+        table.putInt(12, tableSize);
+    }
+
+    private static long tableBytes(int tableCapacity) {
+        return HEADER_BYTES + (long) tableCapacity * SLOT_BYTES;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    /**
+     * Hash domain and URL to a non-zero 64-bit key, zero marks an empty slot
+     */
+    private static long keyHash(String domain, String url) {
+        byte[] hash = HexFormat.of().parseHex(HashUtils.sha256(domain + "\n" + url));
+        long key = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            key = (key << 8) | (hash[i] & 0xff);
+        }
+        return key != 0 ? key : 1;
+    }
+}
@@ -0,0 +1,323 @@
+package com.leads.leadsgen.service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Compiled robots.txt rule set for a single user agent.
+ * Plain path rules are stored in a character trie so a lookup walks the path once,
+ * rules containing wildcards are matched separately. The longest matching rule wins
+ * and Allow wins over Disallow when both match with the same length.
+ */
+public class RobotsRules {
+
+    public static final String USER_AGENT_TOKEN = "leadsgen";
+
+    private static final RobotsRules MISSING = new RobotsRules(false, new Node(), List.of(), List.of(), null);
+    private static final RobotsRules UNREACHABLE = disallowAll();
+
+    private final boolean present;
+    private final Node root;
+    private final List<Rule> wildcardRules;
+    private final List<String> sitemaps;
+    private final Duration crawlDelay;
+
+    private RobotsRules(boolean present, Node root, List<Rule> wildcardRules, List<String> sitemaps, Duration crawlDelay) {
+        this.present = present;
+        this.root = root;
+        this.wildcardRules = wildcardRules;
+        this.sitemaps = sitemaps;
+        this.crawlDelay = crawlDelay;
+    }
+
+    /**
+     * Rules for a host without a robots.txt, everything is allowed
+     *
+     * @return Empty rule set
+     */
+    public static RobotsRules missing() {
+        return MISSING;
+    }
+
+    /**
+     * Rules for a host whose robots.txt could not be read because of a server or network
+     * error. RFC 9309 requires assuming a complete disallow until it can be read.
+     *
+     * @return Rule set disallowing everything
+     */
+    public static RobotsRules unreachable() {
+        return UNREACHABLE;
+    }
+
+    private static RobotsRules disallowAll() {
+        Node root = new Node();
+        root.insert(new Rule("/", false));
+        return new RobotsRules(false, root, List.of(), List.of(), null);
+    }
+
+    /**
+     * Parse robots.txt content for our user agent
+     *
+     * @param content Content of robots.txt
+     * @return Compiled rule set
+     */
+    public static RobotsRules parse(String content) {
+        return parse(content, USER_AGENT_TOKEN);
+    }
+
+    /**
+     * Parse robots.txt content for the given user agent. The groups naming the user agent
+     * are used, falling back to the groups for '*'.
+     *
+     * @param content   Content of robots.txt
+     * @param userAgent Product token of the user agent
+     * @return Compiled rule set
+     */
+    public static RobotsRules parse(String content, String userAgent) {
+        if (content == null) {
+            return MISSING;
+        }
+
+        List<String> sitemaps = new ArrayList<>();
+        List<Group> groups = new ArrayList<>();
+        Group currentGroup = null;
+        boolean readingUserAgents = false;
+
+        for (String rawLine : content.split("\r\n|\r|\n")) {
+            int commentStart = rawLine.indexOf('#');
+            String line = (commentStart >= 0 ? rawLine.substring(0, commentStart) : rawLine).trim();
+            int separator = line.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+
+            String key = line.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(separator + 1).trim();
+
+            switch (key) {
+                case "user-agent" -> {
+                    if (!readingUserAgents) {
+                        currentGroup = new Group();
+                        groups.add(currentGroup);
+                        readingUserAgents = true;
+                    }
+                    currentGroup.userAgents.add(value.toLowerCase(Locale.ROOT));
+                }
+                case "allow", "disallow" -> {
+                    readingUserAgents = false;
+                    if (currentGroup != null && !value.isEmpty()) {
+                        currentGroup.rules.add(new Rule(value, key.equals("allow")));
+                    }
+                }
+                case "crawl-delay" -> {
+                    readingUserAgents = false;
+                    if (currentGroup != null) {
+                        try {
+                            currentGroup.crawlDelay = Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+                        } catch (NumberFormatException e) {
+                            // Ignore invalid crawl delays
+                        }
+                    }
+                }
+                case "sitemap" -> {
+                    if (!value.isEmpty()) {
+                        sitemaps.add(value);
+                    }
+                }
+                default -> readingUserAgents = false;
+            }
+        }
+
+        String token = userAgent.toLowerCase(Locale.ROOT);
+        List<Group> selectedGroups = groups.stream().filter(group -> group.userAgents.contains(token)).toList();
+        if (selectedGroups.isEmpty()) {
+            selectedGroups = groups.stream().filter(group -> group.userAgents.contains("*")).toList();
+        }
+
+        Node root = new Node();
+        List<Rule> wildcardRules = new ArrayList<>();
+        Duration crawlDelay = null;
+
+        for (Group group : selectedGroups) {
+            for (Rule rule : group.rules) {
+                if (rule.pattern().indexOf('*') >= 0 || rule.pattern().endsWith("$")) {
+                    wildcardRules.add(rule);
+                } else {
+                    root.insert(rule);
+                }
+            }
+            if (crawlDelay == null) {
+                crawlDelay = group.crawlDelay;
+            }
+        }
+
+        return new RobotsRules(true, root, List.copyOf(wildcardRules), List.copyOf(sitemaps), crawlDelay);
+    }
+
+    /**
+     * Check whether robots.txt was found for the host
+     *
+     * @return True if robots.txt was fetched, false otherwise
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Check whether robots.txt could be read or was answered with a client error
+     *
+     * @return False if a server or network error left the rules unknown
+     */
+    public boolean isReachable() {
+        return this != UNREACHABLE;
+    }
+
+    /**
+     * Check whether a URL may be crawled
+     *
+     * @param url Absolute URL to check
+     * @return True if the URL is allowed, false otherwise
+     */
+    public boolean isAllowedUrl(String url) {
+        return isAllowed(getPath(url));
+    }
+
+    /**
+     * Check whether a path may be crawled
+     *
+     * @param path Path including query string
+     * @return True if the path is allowed, false otherwise
+     */
+    public boolean isAllowed(String path) {
+        if (path.isEmpty()) {
+            path = "/";
+        }
+
+        // Longest plain rule matching a prefix of the path
+        int bestLength = -1;
+        boolean allowed = true;
+
+        Node node = root;
+        for (int i = 0; ; i++) {
+            if (node.allow != null && i > bestLength) {
+                bestLength = i;
+                allowed = node.allow;
+            }
+            if (i == path.length()) {
+                break;
+            }
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+        }
+
+        for (Rule rule : wildcardRules) {
+            int length = rule.pattern().length();
+            if (length < bestLength || (length == bestLength && allowed)) {
+                continue;
+            }
+            if (matchesWildcard(rule.pattern(), path)) {
+                allowed = length > bestLength ? rule.allow() : allowed || rule.allow();
+                bestLength = length;
+            }
+        }
+
+        return allowed;
+    }
+
+    /**
+     * Get the sitemaps listed in robots.txt
+     *
+     * @return List of sitemap URLs
+     */
+    public List<String> getSitemaps() {
+        return sitemaps;
+    }
+
+    /**
+     * Get the crawl delay requested for our user agent
+     *
+     * @return Crawl delay, or null if none was given
+     */
+    public Duration getCrawlDelay() {
+        return crawlDelay;
+    }
+
+    /**
+     * Match a path against a pattern with '*' wildcards and an optional '$' end anchor
+     *
+     * @param pattern Rule pattern
+     * @param path    Path to match
+     * @return True if the pattern matches the start of the path
+     */
+    private static boolean matchesWildcard(String pattern, String path) {
+        boolean anchored = pattern.endsWith("$");
+        String body = anchored ? pattern.substring(0, pattern.length() - 1) : pattern;
+
+        int p = 0;
+        int s = 0;
+        int starPattern = -1;
+        int starPath = 0;
+
+        while (s < path.length()) {
+            if (p < body.length() && body.charAt(p) == '*') {
+                starPattern = p++;
+                starPath = s;
+            } else if (p < body.length() && body.charAt(p) == path.charAt(s)) {
+                p++;
+                s++;
+            } else if (p == body.length() && !anchored) {
+                return true;
+            } else if (starPattern >= 0) {
+                p = starPattern + 1;
+                s = ++starPath;
+            } else {
+                return false;
+            }
+        }
+
+        while (p < body.length() && body.charAt(p) == '*') {
+            p++;
+        }
+        return p == body.length();
+    }
+
+    /**
+     * Get the path and query of a URL
+     *
+     * @param url Absolute URL
+     * @return Path including query string, "/" if the URL has no path
+     */
+    private static String getPath(String url) {
+        int schemeEnd = url.indexOf("://");
+        int pathStart = url.indexOf('/', schemeEnd >= 0 ? schemeEnd + 3 : 0);
+        if (pathStart < 0) {
+            return "/";
+        }
+        int fragmentStart = url.indexOf('#', pathStart);
+        return fragmentStart >= 0 ? url.substring(pathStart, fragmentStart) : url.substring(pathStart);
+    }
+
+    private record Rule(String pattern, boolean allow) {
+    }
+
+    private static class Group {
+        private final List<String> userAgents = new ArrayList<>();
+        private final List<Rule> rules = new ArrayList<>();
+        private Duration crawlDelay;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Boolean allow;
+
+        private void insert(Rule rule) {
+            Node node = this;
+            for (int i = 0; i < rule.pattern().length(); i++) {
+                node = node.children.computeIfAbsent(rule.pattern().charAt(i), c -> new Node());
+            }
+            node.allow = node.allow == null ? rule.allow() : node.allow || rule.allow();
+        }
+    }
+}
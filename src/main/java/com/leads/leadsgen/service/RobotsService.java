@@ -0,0 +1,160 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.exception.HttpStatusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class RobotsService {
+
+    private static final Logger log = LoggerFactory.getLogger(RobotsService.class);
+
+    private final HttpClient httpClient;
+    private final long ttlNanos;
+    private final long failureTtlNanos;
+    private final Duration fetchTimeout;
+    private final Map<String, CacheEntry> cache;
+
+    public RobotsService(HttpClient httpClient) {
+        this(httpClient, 60, 300, 10000, 10000);
+    }
+
+    @Autowired
+    public RobotsService(
+            HttpClient httpClient,
+            @Value("${robots.cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${robots.cache.failure-ttl-seconds:300}") long failureTtlSeconds,
+            @Value("${robots.cache.max-entries:10000}") int maxEntries,
+            @Value("${robots.fetch-timeout-ms:10000}") long fetchTimeoutMs) {
+        this.httpClient = httpClient;
+        this.ttlNanos = TimeUnit.MINUTES.toNanos(ttlMinutes);
+        this.failureTtlNanos = TimeUnit.SECONDS.toNanos(failureTtlSeconds);
+        this.fetchTimeout = Duration.ofMillis(fetchTimeoutMs);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the robots.txt rules for the host of a URL. Each host is fetched and parsed once
+     * until its cache entry expires, concurrent callers share the same fetch. Rules read from
+     * robots.txt or a client error are cached for the full TTL, server and network errors
+     * only for the failure TTL so the host is asked again soon.
+     *
+     * @param url Any URL on the host
+     * @return Compiled rules, allowing everything if robots.txt does not exist and
+     * disallowing everything if it could not be read
+     */
+    public RobotsRules getRules(String url) {
+        return getRules(url, fetchTimeout);
+    }
+
+    /**
+     * Get the robots.txt rules for the host of a URL, waiting at most the given time. The
+     * shared fetch runs with the fixed robots timeout whoever starts it, so a caller close to
+     * its own deadline only gives up waiting and does not cache a failure for the others.
+     *
+     * @param url     Any URL on the host
+     * @param timeout Maximum time this caller waits for the rules
+     * @return Compiled rules, disallowing everything if robots.txt could not be read in time
+     */
+    public RobotsRules getRules(String url, Duration timeout) {
+        String origin = getOrigin(url);
+        long now = System.nanoTime();
+
+        CacheEntry entry;
+        boolean fetch = false;
+
+        synchronized (cache) {
+            entry = cache.get(origin);
+            if (entry == null || now > entry.expiresAt) {
+                entry = new CacheEntry();
+                cache.put(origin, entry);
+                fetch = true;
+            }
+        }
+
+        if (fetch) {
+            CacheEntry started = entry;
+            Thread.startVirtualThread(() -> fetchRules(origin, started));
+        }
+
+        try {
+            return entry.rules.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("No robots.txt in time for: {}", origin);
+            return RobotsRules.unreachable();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return RobotsRules.unreachable();
+        }
+    }
+
+    /**
+     * Fetch and parse robots.txt for an origin and complete its cache entry. Following
+     * RFC 9309 a client error means there are no rules, while a server or network error
+     * means the rules are unreachable. 429 Too Many Requests is treated as a server error.
+     *
+     * @param origin Scheme and host, e.g. https://example.com
+     * @param entry  Cache entry to complete
+     */
+    private void fetchRules(String origin, CacheEntry entry) {
+        RobotsRules rules;
+        long ttl = ttlNanos;
+        try {
+            rules = RobotsRules.parse(httpClient.getConditional(origin + "/robots.txt", null, null, fetchTimeout).body());
+        } catch (HttpStatusException e) {
+            if (e.getStatusCode() >= 500 || e.getStatusCode() == 429) {
+                log.warn("robots.txt unreachable: {}", e.getMessage());
+                rules = RobotsRules.unreachable();
+                ttl = failureTtlNanos;
+            } else {
+                rules = RobotsRules.missing();
+            }
+        } catch (Exception e) {
+            log.warn("Error fetching robots.txt for {}: {}", origin, e.getMessage());
+            rules = RobotsRules.unreachable();
+            ttl = failureTtlNanos;
+        }
+
+        synchronized (cache) {
+            entry.expiresAt = System.nanoTime() + ttl;
+        }
+        entry.rules.complete(rules);
+    }
+
+    /**
+     * Get the scheme and host of a URL
+     *
+     * @param url URL to extract origin from
+     * @return Origin without trailing slash
+     */
+    private String getOrigin(String url) {
+        int schemeEnd = url.indexOf("://");
+        String scheme = schemeEnd >= 0 ? url.substring(0, schemeEnd).toLowerCase(Locale.ROOT) : "https";
+        String rest = schemeEnd >= 0 ? url.substring(schemeEnd + 3) : url;
+        int hostEnd = rest.indexOf('/');
+        String host = hostEnd >= 0 ? rest.substring(0, hostEnd) : rest;
+        return scheme + "://" + host.toLowerCase(Locale.ROOT);
+    }
+
+    private static class CacheEntry {
+        private final CompletableFuture<RobotsRules> rules = new CompletableFuture<>();
+        private long expiresAt = Long.MAX_VALUE;
+    }
+}
@@ -2,99 +2,264 @@ package com.leads.leadsgen.service;
 
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.ScanFinding;
+import com.leads.leadsgen.model.ScanHistory;
 import com.leads.leadsgen.repository.AssetRepository;
+import com.leads.leadsgen.repository.ScanFindingRepository;
+import com.leads.leadsgen.repository.ScanHistoryRepository;
 import com.leads.leadsgen.repository.ScanReportRepository;
-import com.leads.leadsgen.scanner.SeoScanner;
-import com.leads.leadsgen.scanner.TrackerConsentScanner;
+import com.leads.leadsgen.scanner.Scanner;
+import com.leads.leadsgen.scanner.ScannerRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 public class ScanService {
 
     private final AssetRepository assetRepository;
     private final ScanReportRepository scanReportRepository;
-    private final SeoScanner seoScanner;
-    private final TrackerConsentScanner trackerConsentScanner;
+    private final ScanFindingRepository scanFindingRepository;
+    private final ScanHistoryRepository scanHistoryRepository;
+    private final ScannerRegistry scannerRegistry;
     private final SseService sseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int persistChunkSize;
 
     public ScanService(
             AssetRepository assetRepository,
             ScanReportRepository scanReportRepository,
-            SeoScanner seoScanner,
-            TrackerConsentScanner trackerConsentScanner,
-            SseService sseService) {
+            ScanFindingRepository scanFindingRepository,
+            ScanHistoryRepository scanHistoryRepository,
+            ScannerRegistry scannerRegistry,
+            SseService sseService,
+            TransactionTemplate transactionTemplate,
+            @Value("${scan.persist.chunk-size:100}") int persistChunkSize) {
         this.assetRepository = assetRepository;
         this.scanReportRepository = scanReportRepository;
-        this.seoScanner = seoScanner;
-        this.trackerConsentScanner = trackerConsentScanner;
+        this.scanFindingRepository = scanFindingRepository;
+        this.scanHistoryRepository = scanHistoryRepository;
+        this.scannerRegistry = scannerRegistry;
         this.sseService = sseService;
+        this.transactionTemplate = transactionTemplate;
+        this.persistChunkSize = persistChunkSize;
     }
 
     /**
-     * Scan a list of domains concurrently
+     * Scan a list of domains concurrently. The assets are loaded with one query and the
+     * reports are buffered and saved in chunks, so a large batch costs a few round trips
+     * per chunk instead of several per domain.
      *
      * @param domains   List of domains to scan
      * @param scanners  List of scanners to use
+     * @param force     Run every scanner even if a previous report can be reused
      */
-    public void scanDomains(List<String> domains, List<String> scanners) {
-
-        // TrackerConsentScanner cannot run concurrently due to resource constraints
-        if (scanners.getFirst().equals("TrackerConsentScanner")) {
-            domains.forEach(domain -> {
-                scanDomain(domain, scanners);
-            });
-        } else {
-            domains.forEach(domain -> {
-                Thread thread = new Thread(() -> scanDomain(domain, scanners));
-                thread.start();
-            });
+    public void scanDomains(List<String> domains, List<String> scanners, boolean force) {
+        Set<String> uniqueDomains = new LinkedHashSet<>(domains);
+
+        Map<String, Asset> assets = new HashMap<>();
+        try {
+            for (Asset asset : assetRepository.findByDomainIn(uniqueDomains)) {
+                assets.put(asset.getDomain(), asset);
+            }
+        } catch (Exception e) {
+            System.out.println("Error loading assets for scan - " + e.getMessage());
+            uniqueDomains.forEach(domain -> sseService.broadcastStatus(domain, "Error", Map.of("error", String.valueOf(e.getMessage()))));
+            return;
+        }
+
+        ReportBuffer buffer = new ReportBuffer();
+
+        // Browser scans are bounded by the browser session pool, not by running domains one at a time
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String domain : uniqueDomains) {
+                executor.execute(() -> scanDomain(domain, assets.get(domain), scanners, force, buffer));
+            }
         }
+
+        buffer.flush();
     }
 
     /**
-     * Scan a single domain
+     * Scan a single domain. The scanners run concurrently against the same asset and all
+     * their reports are buffered together once the slowest scanner is done.
      *
      * @param domain    Domain to scan
+     * @param asset     Asset of the domain, null if there is none
      * @param scanners  List of scanners to use
+     * @param force     Run every scanner even if a previous report can be reused
+     * @param buffer    Buffer of reports waiting to be saved
      */
-    private void scanDomain(String domain, List<String> scanners) {
+    private void scanDomain(String domain, Asset asset, List<String> scanners, boolean force, ReportBuffer buffer) {
         try {
             Thread.sleep(1000); // So client can connect
             sseService.broadcastStatus(domain, "Scanning", Map.of());
 
-            Asset asset = assetRepository.findByDomain(domain)
-                    .orElseThrow(() -> new IllegalArgumentException("Asset not found for domain: " + domain));
+            List<Scanner> selectedScanners = scanners.stream().map(scannerRegistry::get).toList();
 
-            for (String scanner : scanners) {
-                ScanReport report = switch (scanner) {
-                    case "SeoScanner" -> seoScanner.scan(asset);
-                    case "TrackerConsentScanner" -> trackerConsentScanner.scan(asset);
-                    default -> throw new IllegalArgumentException("Invalid scanner: " + scanner);
-                };
+            if (asset == null) {
+                throw new IllegalArgumentException("Asset not found for domain: " + domain);
+            }
 
-                System.out.println("Scan report: " + report);
+            // Load the stored HTML once so all scanners share it
+            asset.getHtmlContents();
 
-                List<Map<String, String>> scannedBy = asset.getScannedBy();
+            Map<String, Future<ScanReport>> futures = new LinkedHashMap<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Scanner scanner : selectedScanners) {
+                    futures.put(scanner.getName(), executor.submit(() -> runScanner(scanner, asset, force)));
+                }
+            }
 
-                if (scannedBy == null) {
-                    scannedBy = new ArrayList<>();
+            List<ScanReport> reports = new ArrayList<>();
+            for (Map.Entry<String, Future<ScanReport>> entry : futures.entrySet()) {
+                try {
+                    ScanReport report = entry.getValue().get();
+                    report.setScanner(entry.getKey());
+                    System.out.println("Scan report: " + report);
+                    reports.add(report);
+                } catch (ExecutionException e) {
+                    System.out.println("Error running " + entry.getKey() + " on domain: " + domain + " - " + e.getCause().getMessage());
+                    sseService.broadcastStatus(domain, "Error", Map.of("error", String.valueOf(e.getCause().getMessage())));
                 }
+            }
 
-                scannedBy.add(Map.of("scanner", scanner, "datetime", report.getCreatedAt().toString()));
-                asset.setScannedBy(scannedBy);
-                assetRepository.save(asset);
+            if (!reports.isEmpty()) {
+                buffer.add(new ScannedAsset(asset, reports));
+            }
+        } catch (Exception e) {
+            System.out.println("Error scanning domain: " + domain + " - " + e.getMessage());
+            sseService.broadcastStatus(domain, "Error", Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
 
-                scanReportRepository.save(report);
+    /**
+     * Run a scanner, or copy its previous report for the asset when the fingerprint of the
+     * scan inputs has not changed since
+     *
+     * @param scanner Scanner to run
+     * @param asset   Asset to scan
+     * @param force   Always run the scanner
+     * @return New report
+     */
+    private ScanReport runScanner(Scanner scanner, Asset asset, boolean force) {
+        String fingerprint = scanner.fingerprint(asset);
 
-                sseService.broadcastStatus(domain, "Scanned", Map.of("flagged", report.isFlagged() ? "yes" : "no"));
+        if (!force && fingerprint != null) {
+            Optional<ScanReport> previous = scanReportRepository.findFirstByAssetIdAndScannerOrderByCreatedAtDesc(asset.getId(), scanner.getName());
+            if (previous.isPresent() && fingerprint.equals(previous.get().getFingerprint())) {
+                System.out.println("Unchanged since last scan, reusing " + scanner.getName() + " report for: " + asset.getDomain());
+                ScanReport report = new ScanReport(previous.get().getReport(), asset, previous.get().isFlagged());
+                report.setFingerprint(fingerprint);
+                for (ScanFinding finding : scanFindingRepository.findByReportIdOrderByIdAsc(previous.get().getId())) {
+                    report.addFinding(finding.copy());
+                }
+                return report;
             }
+        }
+
+        ScanReport report = scanner.scan(asset);
+        report.setFingerprint(fingerprint);
+        return report;
+    }
+
+    /**
+     * Save a chunk of scanned assets in one transaction and report them as scanned
+     *
+     * @param chunk Scanned assets to save
+     */
+    private void persist(List<ScannedAsset> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveReports(chunk));
         } catch (Exception e) {
-            System.out.println("Error scanning domain: " + domain + " - " + e.getMessage());
-            sseService.broadcastStatus(domain, "Error", Map.of("error", e.getMessage()));
+            System.out.println("Error saving scan reports - " + e.getMessage());
+            chunk.forEach(scanned -> sseService.broadcastStatus(scanned.asset().getDomain(), "Error", Map.of("error", String.valueOf(e.getMessage()))));
+            return;
+        }
+
+        for (ScannedAsset scanned : chunk) {
+            for (ScanReport report : scanned.reports()) {
+                sseService.broadcastStatus(scanned.asset().getDomain(), "Scanned", Map.of("flagged", report.isFlagged() ? "yes" : "no"));
+            }
+        }
+    }
+
+    /**
+     * Save the reports of scanned assets and append them to the scan history of the
+     * assets. Both are inserted with one saveAll each, which Hibernate sends as JDBC
+     * batches, and the last report of all assets is updated with one statement.
+     *
+     * @param chunk Scanned assets to save
+     */
+    private void saveReports(List<ScannedAsset> chunk) {
+        List<ScanReport> reports = new ArrayList<>();
+        List<ScanHistory> history = new ArrayList<>();
+        for (ScannedAsset scanned : chunk) {
+            for (ScanReport report : scanned.reports()) {
+                reports.add(report);
+                history.add(new ScanHistory(scanned.asset(), report.getScanner(), report.getCreatedAt()));
+            }
+        }
+
+        scanReportRepository.saveAll(reports);
+        scanHistoryRepository.saveAll(history);
+        assetRepository.updateLastReportIds(chunk.stream().map(scanned -> scanned.asset().getId()).toList());
+    }
+
+    private record ScannedAsset(Asset asset, List<ScanReport> reports) {
+    }
+
+    /**
+     * Reports of a scan batch waiting to be saved. A chunk is saved as soon as it holds
+     * enough reports, the rest when the batch is done.
+     */
+    private class ReportBuffer {
+
+        private final List<ScannedAsset> pending = new ArrayList<>();
+        private int pendingReports;
+
+        void add(ScannedAsset scanned) {
+            List<ScannedAsset> chunk = null;
+            synchronized (this) {
+                pending.add(scanned);
+                pendingReports += scanned.reports().size();
+                if (pendingReports >= persistChunkSize) {
+                    chunk = drain();
+                }
+            }
+            if (chunk != null) {
+                persist(chunk);
+            }
+        }
+
+        void flush() {
+            List<ScannedAsset> chunk;
+            synchronized (this) {
+                chunk = drain();
+            }
+            if (!chunk.isEmpty()) {
+                persist(chunk);
+            }
+        }
+
+        private List<ScannedAsset> drain() {
+            List<ScannedAsset> chunk = new ArrayList<>(pending);
+            pending.clear();
+            pendingReports = 0;
+            return chunk;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.leads.leadsgen.service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming sitemap parser. Reads urlset and sitemapindex documents, plain or gzipped,
+ * and hands every loc to a consumer as it is read so memory use does not depend on
+ * the size of the sitemap.
+ */
+public final class SitemapParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private SitemapParser() {
+    }
+
+    /**
+     * Parse a sitemap or sitemap index
+     *
+     * @param in              Sitemap content, gzip compressed or not
+     * @param pageConsumer    Receives page URLs
+     * @param sitemapConsumer Receives nested sitemap URLs
+     * @throws IOException        if the stream could not be read
+     * @throws XMLStreamException if the content is not valid XML
+     */
+    public static void parse(InputStream in, Consumer<String> pageConsumer, Consumer<String> sitemapConsumer)
+            throws IOException, XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(decompress(in));
+        try {
+            boolean inSitemapEntry = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "sitemap" -> inSitemapEntry = true;
+                        case "url" -> inSitemapEntry = false;
+                        case "loc" -> {
+                            String loc = reader.getElementText().trim();
+                            if (loc.isEmpty()) {
+                                continue;
+                            }
+                            if (inSitemapEntry || loc.endsWith(".xml") || loc.endsWith(".xml.gz")) {
+                                sitemapConsumer.accept(loc);
+                            } else {
+                                pageConsumer.accept(loc);
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("sitemap")) {
+                    inSitemapEntry = false;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Wrap the stream in a GZIPInputStream if it starts with the gzip magic number
+     *
+     * @param in Stream to inspect
+     * @return Stream of the uncompressed content
+     * @throws IOException if the stream could not be read
+     */
+    private static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+}
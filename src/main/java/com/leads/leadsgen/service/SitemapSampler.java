@@ -0,0 +1,79 @@
+package com.leads.leadsgen.service;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Keeps at most a fixed number of sitemap URLs. With sampling enabled a uniform random
+ * sample over all URLs seen is kept (reservoir sampling), otherwise the first URLs are
+ * kept. Either way memory use is bounded by the cap, not by the size of the sitemap.
+ */
+public class SitemapSampler implements Consumer<String> {
+
+    private final int maxUrls;
+    private final boolean sample;
+    private final Set<String> seenInSample = new HashSet<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private long seen;
+
+    public SitemapSampler(int maxUrls, boolean sample) {
+        this.maxUrls = maxUrls;
+        this.sample = sample;
+    }
+
+    @Override
+    public void accept(String url) {
+        if (seenInSample.contains(url)) {
+            return;
+        }
+
+        long index = seen++;
+
+        if (entries.size() < maxUrls) {
+            add(entries.size(), new Entry(index, url));
+            return;
+        }
+
+        if (sample) {
+            long slot = ThreadLocalRandom.current().nextLong(index + 1);
+            if (slot < maxUrls) {
+                seenInSample.remove(entries.get((int) slot).url());
+                add((int) slot, new Entry(index, url));
+            }
+        }
+    }
+
+    /**
+     * Get the kept URLs in the order they appeared in the sitemaps
+     *
+     * @return List of URLs
+     */
+    public List<String> getUrls() {
+        return entries.stream()
+                .sorted(Comparator.comparingLong(Entry::index))
+                .map(Entry::url)
+                .toList();
+    }
+
+    /**
+     * Get the number of URLs offered so far
+     *
+     * @return Number of URLs seen
+     */
+    public long getSeen() {
+        return seen;
+    }
+
+    private void add(int slot, Entry entry) {
+        if (slot == entries.size()) {
+            entries.add(entry);
+        } else {
+            entries.set(slot, entry);
+        }
+        seenInSample.add(entry.url());
+    }
+
+    private record Entry(long index, String url) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.leads.leadsgen.service.dns;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encoding of DNS queries and decoding of responses (RFC 1035), with an EDNS0 OPT record
+ * (RFC 6891) so servers can answer with datagrams larger than 512 bytes
+ */
+final class DnsMessage {
+
+    static final int TYPE_MX = 15;
+    static final int TYPE_TXT = 16;
+    static final int TYPE_SOA = 6;
+    static final int TYPE_OPT = 41;
+    static final int CLASS_IN = 1;
+    static final int UDP_PAYLOAD_SIZE = 4096;
+
+    private static final int FLAG_RD = 0x0100;
+    private static final int FLAG_QR = 0x8000;
+    private static final int MAX_POINTERS = 32;
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private DnsMessage() {
+    }
+
+    /**
+     * Encode a recursive query
+     *
+     * @param id   Query id
+     * @param name Name to query
+     * @param type Record type
+     * @return Encoded query
+     * @throws IllegalArgumentException If the name has an empty or too long label or is too long
+     */
+    static byte[] encodeQuery(int id, String name, int type) {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        buffer.putShort((short) id);
+        buffer.putShort((short) FLAG_RD);
+        buffer.putShort((short) 1); // questions
+        buffer.putShort((short) 0); // answers
+        buffer.putShort((short) 0); // authority
+        buffer.putShort((short) 1); // additional: OPT
+
+        encodeName(buffer, name);
+        buffer.putShort((short) type);
+        buffer.putShort((short) CLASS_IN);
+
+        // EDNS0 OPT pseudo record
+        buffer.put((byte) 0);
+        buffer.putShort((short) TYPE_OPT);
+        buffer.putShort((short) UDP_PAYLOAD_SIZE);
+        buffer.putInt(0);
+        buffer.putShort((short) 0);
+
+        byte[] query = new byte[buffer.position()];
+        buffer.flip().get(query);
+        return query;
+    }
+
+    static void encodeName(ByteBuffer buffer, String name) {
+        int start = buffer.position();
+        String trimmed = name.endsWith(".") ? name.substring(0, name.length() - 1) : name;
+        if (!trimmed.isEmpty()) {
+            for (String label : trimmed.split("\\.")) {
+                byte[] bytes = label.getBytes(StandardCharsets.US_ASCII);
+                if (bytes.length == 0 || bytes.length > 63) {
+                    throw new IllegalArgumentException("Invalid DNS name: " + name);
+                }
+                if (buffer.position() - start + bytes.length + 2 > MAX_NAME_LENGTH) {
+                    throw new IllegalArgumentException("Invalid DNS name: " + name);
+                }
+                buffer.put((byte) bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        buffer.put((byte) 0);
+    }
+
+    /**
+     * Read the id of a response
+     */
+    static int readId(ByteBuffer message) {
+        return message.getShort(0) & 0xffff;
+    }
+
+    /**
+     * Decode a response to a query
+     *
+     * @param message Received datagram
+     * @param name    Queried name, the question of the response must match it
+     * @param type    Queried type
+     * @param defaultNegativeTtl TTL of negative answers without an SOA record
+     * @return Decoded response
+     * @throws IOException If the message is malformed or does not answer the query
+     */
+    static DnsResponse decodeResponse(ByteBuffer message, String name, int type, long defaultNegativeTtl) throws IOException {
+        try {
+            message.position(2);
+            int flags = message.getShort() & 0xffff;
+            int questions = message.getShort() & 0xffff;
+            int answers = message.getShort() & 0xffff;
+            int authorities = message.getShort() & 0xffff;
+            message.getShort(); // additional
+
+            if ((flags & FLAG_QR) == 0 || questions != 1) {
+                throw new IOException("Not a response to a single question");
+            }
+            String questionName = readName(message);
+            int questionType = message.getShort() & 0xffff;
+            message.getShort(); // class
+            if (questionType != type || !normalizeName(questionName).equals(normalizeName(name))) {
+                throw new IOException("Response does not match query for " + name);
+            }
+
+            int rcode = flags & 0x0f;
+            List<String> records = new ArrayList<>();
+            long ttl = Long.MAX_VALUE;
+
+            for (int i = 0; i < answers; i++) {
+                readName(message);
+                int recordType = message.getShort() & 0xffff;
+                message.getShort(); // class
+                long recordTtl = message.getInt() & 0xffffffffL;
+                int length = message.getShort() & 0xffff;
+                int end = message.position() + length;
+
+                if (recordType == type) {
+                    records.add(type == TYPE_MX ? readMx(message) : readTxt(message, end));
+                    ttl = Math.min(ttl, recordTtl);
+                }
+                message.position(end);
+            }
+
+            if (records.isEmpty()) {
+                ttl = defaultNegativeTtl;
+                for (int i = 0; i < authorities; i++) {
+                    readName(message);
+                    int recordType = message.getShort() & 0xffff;
+                    message.getShort(); // class
+                    long recordTtl = message.getInt() & 0xffffffffL;
+                    int length = message.getShort() & 0xffff;
+                    int end = message.position() + length;
+
+                    if (recordType == TYPE_SOA) {
+                        // RFC 2308: negative TTL is the lower of the SOA TTL and its minimum field
+                        long minimum = message.getInt(end - 4) & 0xffffffffL;
+                        ttl = Math.min(recordTtl, minimum);
+                    }
+                    message.position(end);
+                }
+            }
+
+            return new DnsResponse(rcode, records, ttl == Long.MAX_VALUE ? 0 : ttl);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed DNS response for " + name, e);
+        }
+    }
+
+    /**
+     * Check whether a response has the truncated flag set
+     */
+    static boolean isTruncated(ByteBuffer message) {
+        return (message.getShort(2) & 0x0200) != 0;
+    }
+
+    private static String readMx(ByteBuffer message) {
+        int preference = message.getShort() & 0xffff;
+        return preference + " " + readName(message);
+    }
+
+    private static String readTxt(ByteBuffer message, int end) {
+        StringBuilder text = new StringBuilder();
+        while (message.position() < end) {
+            byte[] bytes = new byte[message.get() & 0xff];
+            message.get(bytes);
+            text.append(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Read a possibly compressed name, leaving the buffer after the name's position in the record
+     */
+    static String readName(ByteBuffer message) {
+        StringBuilder name = new StringBuilder();
+        int position = message.position();
+        int resumeAt = -1;
+        int pointers = 0;
+
+        while (true) {
+            int length = message.get(position) & 0xff;
+            if ((length & 0xc0) == 0xc0) {
+                if (++pointers > MAX_POINTERS) {
+                    throw new IllegalArgumentException("Compression loop");
+                }
+                if (resumeAt < 0) {
+                    resumeAt = position + 2;
+                }
+                position = ((length & 0x3f) << 8) | (message.get(position + 1) & 0xff);
+                continue;
+            }
+            if (length == 0) {
+                position++;
+                break;
+            }
+
+            byte[] label = new byte[length];
+            message.get(position + 1, label);
+            if (!name.isEmpty()) {
+                name.append('.');
+            }
+            name.append(new String(label, StandardCharsets.US_ASCII));
+            position += length + 1;
+        }
+
+        message.position(resumeAt >= 0 ? resumeAt : position);
+        return name.toString();
+    }
+
+    static String normalizeName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".") ? lower.substring(0, lower.length() - 1) : lower;
+    }
+}
@@ -0,0 +1,427 @@
+package com.leads.leadsgen.service.dns;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking DNS resolver. All queries share one UDP channel served by a single selector
+ * thread, so thousands of lookups can be in flight at once without a thread each. Queries
+ * are retransmitted on timeout, and truncated answers are asked again over TCP. Answers,
+ * including negative ones, are cached for their TTL and concurrent lookups of the same name
+ * share one query.
+ */
+@Service
+public class DnsResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(DnsResolver.class);
+
+    private static final String DEFAULT_SERVER = "1.1.1.1";
+    // Queries waiting for an answer, well below the 65536 ids so a free id is always found quickly
+    private static final int DEFAULT_MAX_PENDING = 4096;
+
+    private final InetSocketAddress server;
+    private final long timeoutNanos;
+    private final int retries;
+    private final long maxTtlSeconds;
+    private final long negativeTtlSeconds;
+    private final int maxPending;
+    private final Map<String, CacheEntry> cache;
+
+    private final DatagramChannel channel;
+    private final Selector selector;
+    private final Queue<Query> outbound = new ConcurrentLinkedQueue<>();
+    // Queries that already hold an id, only touched by the selector thread
+    private final Queue<Query> retransmits = new ArrayDeque<>();
+    private final Map<Integer, Query> pending = new HashMap<>();
+    private final Thread selectorThread;
+    private volatile boolean closed;
+
+    @Autowired
+    public DnsResolver(
+            @Value("${dns.resolver.server:}") String server,
+            @Value("${dns.resolver.timeout-ms:2000}") long timeoutMs,
+            @Value("${dns.resolver.retries:2}") int retries,
+            @Value("${dns.cache.max-ttl-seconds:3600}") long maxTtlSeconds,
+            @Value("${dns.cache.negative-ttl-seconds:300}") long negativeTtlSeconds,
+            @Value("${dns.cache.max-entries:100000}") int maxEntries) {
+        this(new InetSocketAddress(server.isBlank() ? systemNameServer() : server, 53),
+                Duration.ofMillis(timeoutMs), retries, maxTtlSeconds, negativeTtlSeconds, maxEntries);
+    }
+
+    public DnsResolver(InetSocketAddress server, Duration timeout, int retries, long maxTtlSeconds, long negativeTtlSeconds, int maxEntries) {
+        this(server, timeout, retries, maxTtlSeconds, negativeTtlSeconds, maxEntries, DEFAULT_MAX_PENDING);
+    }
+
+    DnsResolver(InetSocketAddress server, Duration timeout, int retries, long maxTtlSeconds, long negativeTtlSeconds, int maxEntries, int maxPending) {
+        this.server = server;
+        this.maxPending = maxPending;
+        this.timeoutNanos = timeout.toNanos();
+        this.retries = retries;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.negativeTtlSeconds = negativeTtlSeconds;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        try {
+            this.channel = DatagramChannel.open();
+            this.channel.configureBlocking(false);
+            this.channel.bind(null);
+            this.selector = Selector.open();
+            this.channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open DNS resolver channel", e);
+        }
+
+        this.selectorThread = new Thread(this::run, "dns-resolver");
+        this.selectorThread.setDaemon(true);
+        this.selectorThread.start();
+    }
+
+    /**
+     * Look up the mail exchangers of a domain
+     *
+     * @param domain Domain to look up
+     * @return Exchange host names ordered by preference, empty if the domain has none
+     */
+    public CompletableFuture<List<String>> lookupMx(String domain) {
+        return query(domain, DnsMessage.TYPE_MX).thenApply(response -> response.records().stream()
+                .map(record -> record.split(" ", 2))
+                .sorted(Comparator.comparingInt(record -> Integer.parseInt(record[0])))
+                .map(record -> record[1])
+                .toList());
+    }
+
+    /**
+     * Look up the TXT records of a name
+     *
+     * @param name Name to look up
+     * @return TXT records, empty if the name has none
+     */
+    public CompletableFuture<List<String>> lookupTxt(String name) {
+        return query(name, DnsMessage.TYPE_TXT).thenApply(DnsResponse::records);
+    }
+
+    /**
+     * Query a name, answering from the cache while the previous answer is fresh
+     *
+     * @param name Name to query
+     * @param type Record type
+     * @return Future completed with the response, or failed on timeout or server error
+     */
+    public CompletableFuture<DnsResponse> query(String name, int type) {
+        String normalized = DnsMessage.normalizeName(name);
+        String key = type + " " + normalized;
+        long now = System.nanoTime();
+
+        // Encode up front so a malformed name, e.g. from a scraped "info@example..com", fails here
+        // instead of in the selector thread. The id is filled in when the query is sent.
+        byte[] message;
+        try {
+            message = DnsMessage.encodeQuery(0, normalized, type);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CacheEntry entry;
+        boolean send = false;
+        synchronized (cache) {
+            entry = cache.get(key);
+            // A failed entry is removed when it completes, but a caller can get here before that
+            if (entry == null || now > entry.expiresAt || entry.response.isCompletedExceptionally()) {
+                entry = new CacheEntry();
+                cache.put(key, entry);
+                send = true;
+            }
+        }
+
+        if (send) {
+            CacheEntry created = entry;
+            created.response.whenComplete((response, error) -> {
+                synchronized (cache) {
+                    if (error != null) {
+                        cache.remove(key, created);
+                    } else {
+                        created.expiresAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(response.ttlSeconds());
+                    }
+                }
+            });
+            outbound.add(new Query(normalized, type, message, created.response));
+            selector.wakeup();
+        }
+        return entry.response;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        closed = true;
+        selector.wakeup();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        selector.close();
+        channel.close();
+    }
+
+    /**
+     * Selector loop: send queued queries, read responses and retransmit or fail queries
+     * that timed out
+     */
+    private void run() {
+        ByteBuffer receiveBuffer = ByteBuffer.allocate(DnsMessage.UDP_PAYLOAD_SIZE);
+        while (!closed) {
+            try {
+                sendQueued();
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline() - System.nanoTime())));
+                selector.selectedKeys().clear();
+                receive(receiveBuffer);
+                expire();
+            } catch (Exception e) {
+                log.error("DNS resolver error", e);
+            }
+        }
+
+        IOException closedException = new IOException("DNS resolver closed");
+        pending.values().forEach(query -> query.response.completeExceptionally(closedException));
+        outbound.forEach(query -> query.response.completeExceptionally(closedException));
+    }
+
+    /**
+     * Send retransmits, then new queries while fewer than maxPending are waiting for an
+     * answer. New queries beyond that stay queued until answers or timeouts free an id.
+     */
+    private void sendQueued() throws IOException {
+        if (!send(retransmits)) {
+            return;
+        }
+        if (!send(outbound)) {
+            return;
+        }
+        channel.keyFor(selector).interestOps(SelectionKey.OP_READ);
+    }
+
+    /**
+     * Send the queries of a queue
+     *
+     * @param queue Queue to send from
+     * @return False if the channel is full and the rest has to wait until it is writable
+     */
+    private boolean send(Queue<Query> queue) {
+        Query query;
+        while ((query = queue.peek()) != null) {
+            if (query.id < 0) {
+                if (pending.size() >= maxPending) {
+                    return true;
+                }
+                query.id = nextId();
+                query.message[0] = (byte) (query.id >> 8);
+                query.message[1] = (byte) query.id;
+                pending.put(query.id, query);
+            }
+
+            int sent;
+            try {
+                sent = channel.send(ByteBuffer.wrap(query.message), server);
+            } catch (Exception e) {
+                // Fail this query instead of retrying it forever at the head of the queue
+                queue.poll();
+                pending.remove(query.id);
+                query.response.completeExceptionally(e);
+                continue;
+            }
+            if (sent == 0) {
+                channel.keyFor(selector).interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return false;
+            }
+            queue.poll();
+            query.deadline = System.nanoTime() + timeoutNanos;
+        }
+        return true;
+    }
+
+    private void receive(ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            if (channel.receive(buffer) == null) {
+                return;
+            }
+            buffer.flip();
+            if (buffer.remaining() < 12) {
+                continue;
+            }
+
+            Query query = pending.get(DnsMessage.readId(buffer));
+            if (query == null) {
+                continue;
+            }
+
+            if (DnsMessage.isTruncated(buffer)) {
+                // The answer did not fit, e.g. a long SPF record, so ask again over TCP
+                pending.remove(query.id);
+                queryOverTcp(query);
+                continue;
+            }
+
+            DnsResponse response;
+            try {
+                response = DnsMessage.decodeResponse(buffer, query.name, query.type, negativeTtlSeconds);
+            } catch (IOException e) {
+                // Not an answer to this query, keep waiting for the real one
+                continue;
+            }
+
+            pending.remove(query.id);
+            complete(query, response);
+        }
+    }
+
+    /**
+     * Send a query over TCP on its own virtual thread, as DNS over TCP is one blocking
+     * request per connection
+     *
+     * @param query Query whose UDP answer was truncated
+     */
+    private void queryOverTcp(Query query) {
+        Thread.startVirtualThread(() -> {
+            int timeoutMs = (int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            try (Socket socket = new Socket()) {
+                socket.connect(server, timeoutMs);
+                socket.setSoTimeout(timeoutMs);
+
+                // Messages over TCP are prefixed with their length
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeShort(query.message.length);
+                out.write(query.message);
+                out.flush();
+
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                byte[] answer = new byte[in.readUnsignedShort()];
+                in.readFully(answer);
+
+                ByteBuffer buffer = ByteBuffer.wrap(answer);
+                if (answer.length < 12 || DnsMessage.readId(buffer) != query.id || DnsMessage.isTruncated(buffer)) {
+                    throw new IOException("Invalid TCP answer to DNS query for " + query.name);
+                }
+                complete(query, DnsMessage.decodeResponse(buffer, query.name, query.type, negativeTtlSeconds));
+            } catch (Exception e) {
+                query.response.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void complete(Query query, DnsResponse response) {
+        if (response.rcode() != DnsResponse.NOERROR && response.rcode() != DnsResponse.NXDOMAIN) {
+            query.response.completeExceptionally(new IOException("DNS query for " + query.name + " failed with rcode " + response.rcode()));
+        } else {
+            long ttl = response.isNegative() ? Math.min(response.ttlSeconds(), negativeTtlSeconds) : Math.min(response.ttlSeconds(), maxTtlSeconds);
+            query.response.complete(new DnsResponse(response.rcode(), response.records(), ttl));
+        }
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        Iterator<Query> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Query query = iterator.next();
+            if (query.deadline == 0 || now < query.deadline) {
+                continue;
+            }
+            if (query.attempts < retries) {
+                query.attempts++;
+                query.deadline = 0;
+                retransmits.add(query);
+            } else {
+                iterator.remove();
+                query.response.completeExceptionally(new SocketTimeoutException("DNS query for " + query.name + " timed out"));
+            }
+        }
+    }
+
+    private long nextDeadline() {
+        long next = System.nanoTime() + timeoutNanos;
+        for (Query query : pending.values()) {
+            if (query.deadline != 0 && query.deadline < next) {
+                next = query.deadline;
+            }
+        }
+        return next;
+    }
+
+    private int nextId() {
+        int id;
+        do {
+            id = ThreadLocalRandom.current().nextInt(0x10000);
+        } while (pending.containsKey(id));
+        return id;
+    }
+
+    /**
+     * Get the first name server from /etc/resolv.conf
+     *
+     * @return Name server address, or a public resolver if none is configured
+     */
+    private static String systemNameServer() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/etc/resolv.conf"))) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length >= 2 && parts[0].equals("nameserver")) {
+                    return parts[1];
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read /etc/resolv.conf, using {}: {}", DEFAULT_SERVER, e.getMessage());
+        }
+        return DEFAULT_SERVER;
+    }
+
+    private static class Query {
+        private final String name;
+        private final int type;
+        private final byte[] message;
+        private final CompletableFuture<DnsResponse> response;
+        private int id = -1;
+        private long deadline;
+        private int attempts;
+
+        private Query(String name, int type, byte[] message, CompletableFuture<DnsResponse> response) {
+            this.name = name;
+            this.type = type;
+            this.message = message;
+            this.response = response;
+        }
+    }
+
+    private static class CacheEntry {
+        private final CompletableFuture<DnsResponse> response = new CompletableFuture<>();
+        private long expiresAt = Long.MAX_VALUE;
+    }
+}
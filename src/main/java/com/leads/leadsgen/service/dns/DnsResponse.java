@@ -0,0 +1,26 @@
+package com.leads.leadsgen.service.dns;
+
+import java.util.List;
+
+/**
+ * Answer to a DNS query
+ *
+ * @param rcode      Response code, 0 for NOERROR and 3 for NXDOMAIN
+ * @param records    Records of the queried type. MX records are "preference exchange",
+ *                   TXT records are their strings joined together.
+ * @param ttlSeconds How long the answer may be cached
+ */
+public record DnsResponse(int rcode, List<String> records, long ttlSeconds) {
+
+    public static final int NOERROR = 0;
+    public static final int NXDOMAIN = 3;
+
+    /**
+     * Check whether the name exists but has no records of the queried type, or does not exist
+     *
+     * @return True if the answer is negative
+     */
+    public boolean isNegative() {
+        return records.isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.leads.leadsgen.service.impl;
+
+import com.leads.leadsgen.service.FetchResult;
+import com.leads.leadsgen.service.HttpClient;
+import com.leads.leadsgen.util.UrlUtils;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * HttpClient decorator for a single crawl or scan session. Requests for the same normalized
+ * URL share one call to the underlying client: a request that is in flight is joined and a
+ * completed response, or failure, is returned again for the rest of the session. Streams are
+ * not cached and are passed straight through.
+ */
+public class CoalescingHttpClient implements HttpClient {
+
+    private final HttpClient delegate;
+    private final Map<String, CompletableFuture<Object>> requests = new ConcurrentHashMap<>();
+
+    public CoalescingHttpClient(HttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String get(String url) throws Exception {
+        return (String) join(coalesce("GET " + UrlUtils.normalize(url), () -> delegate.get(url)));
+    }
+
+    @Override
+    public Map<String, String> getHtml(String url) throws Exception {
+        Map<String, String> htmlContent = new HashMap<>();
+        htmlContent.put(url, get(url));
+        return htmlContent;
+    }
+
+    @Override
+    public InputStream getStream(String url) throws Exception {
+        return delegate.getStream(url);
+    }
+
+    @Override
+    public InputStream getStream(String url, Duration timeout) throws Exception {
+        return delegate.getStream(url, timeout);
+    }
+
+    @Override
+    public FetchResult getConditional(String url, String etag, String lastModified, Duration timeout) throws Exception {
+        String key = "CONDITIONAL " + UrlUtils.normalize(url) + "\n" + etag + "\n" + lastModified;
+        return (FetchResult) join(coalesce(key, () -> delegate.getConditional(url, etag, lastModified, timeout)));
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url) {
+        String key = "GET " + UrlUtils.normalize(url);
+        CompletableFuture<Object> existing = requests.get(key);
+        if (existing != null) {
+            return existing.thenApply(String.class::cast);
+        }
+
+        CompletableFuture<Object> request = new CompletableFuture<>();
+        existing = requests.putIfAbsent(key, request);
+        if (existing != null) {
+            return existing.thenApply(String.class::cast);
+        }
+
+        delegate.getAsync(url).whenComplete((body, error) -> {
+            if (error != null) {
+                request.completeExceptionally(error);
+            } else {
+                request.complete(body);
+            }
+        });
+        return request.thenApply(String.class::cast);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getHtmlAsync(String url) {
+        return getAsync(url).thenApply(html -> {
+            Map<String, String> htmlContent = new HashMap<>();
+            htmlContent.put(url, html);
+            return htmlContent;
+        });
+    }
+
+    /**
+     * Get the number of distinct requests sent to the underlying client
+     *
+     * @return Number of requests
+     */
+    public int getRequestCount() {
+        return requests.size();
+    }
+
+    /**
+     * Run a request unless a request with the same key was already started, in which case
+     * its result is shared
+     *
+     * @param key     Request key
+     * @param request Request to run
+     * @return Future completed with the result of the first request for the key
+     */
+    private CompletableFuture<Object> coalesce(String key, Callable<Object> request) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = requests.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            future.complete(request.call());
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Object join(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,32 +1,33 @@
 package com.leads.leadsgen.service.impl;
 
+import com.leads.leadsgen.exception.HttpStatusException;
+import com.leads.leadsgen.service.FetchResult;
 import com.leads.leadsgen.service.HttpClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
+@ConditionalOnProperty(name = "http.client.impl", havingValue = "url-connection", matchIfMissing = true)
 public class HttpClientImpl implements HttpClient {
 
     @Override
     public String get(String url) throws Exception {
         HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
         connection.setRequestMethod("GET");
-
-        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            response.append(line);
-        }
-        reader.close();
-
-        return response.toString();
+        return readBody(connection);
     }
 
     @Override
@@ -36,4 +37,139 @@ public class HttpClientImpl implements HttpClient {
         htmlContent.put(url, html);
         return htmlContent;
     }
-}
\ No newline at end of file
+
+    @Override
+    public InputStream getStream(String url) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("GET");
+        return connection.getInputStream();
+    }
+
+    @Override
+    public InputStream getStream(String url, Duration timeout) throws Exception {
+        HttpURLConnection connection = openConnection(url, timeout);
+        RequestDeadline deadline = new RequestDeadline(url, timeout, connection::disconnect);
+        try {
+            return deadline.guard(connection.getInputStream());
+        } catch (IOException e) {
+            deadline.close();
+            throw deadline.failure(e);
+        }
+    }
+
+    @Override
+    public FetchResult getConditional(String url, String etag, String lastModified, Duration timeout) throws Exception {
+        HttpURLConnection connection = openConnection(url, timeout);
+        try (RequestDeadline deadline = new RequestDeadline(url, timeout, connection::disconnect)) {
+            try {
+                return readConditional(connection, etag, lastModified);
+            } catch (IOException e) {
+                throw deadline.failure(e);
+            }
+        }
+    }
+
+    private FetchResult readConditional(HttpURLConnection connection, String etag, String lastModified) throws IOException {
+        if (etag != null) {
+            connection.setRequestProperty("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            connection.setRequestProperty("If-Modified-Since", lastModified);
+        }
+
+        int status = connection.getResponseCode();
+        String responseEtag = connection.getHeaderField("ETag");
+        String responseLastModified = connection.getHeaderField("Last-Modified");
+
+        if (status == FetchResult.NOT_MODIFIED) {
+            connection.disconnect();
+            return new FetchResult(status, null, responseEtag, responseLastModified);
+        }
+        if (status >= 400) {
+            connection.disconnect();
+            throw new HttpStatusException(status, connection.getURL().toString());
+        }
+
+        return new FetchResult(status, readBody(connection), responseEtag, responseLastModified);
+    }
+
+    /**
+     * Read the whole response body as sent, line breaks included
+     *
+     * @param connection Connection to read
+     * @return Body decoded with the charset of the response
+     * @throws IOException if the body cannot be read
+     */
+    private String readBody(HttpURLConnection connection) throws IOException {
+        try (InputStream body = connection.getInputStream()) {
+            return new String(body.readAllBytes(), getCharset(connection));
+        }
+    }
+
+    /**
+     * Get the charset declared in the Content-Type header
+     *
+     * @param connection Connection to inspect
+     * @return Declared charset or UTF-8
+     */
+    private Charset getCharset(HttpURLConnection connection) {
+        String contentType = connection.getContentType();
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                } catch (Exception e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Open a GET connection whose connect and read timeouts are at most the time the
+     * whole request may take
+     *
+     * @param url     URL to request
+     * @param timeout Time the whole request may take
+     * @return Unconnected connection
+     * @throws Exception if the timeout has already passed or the URL is invalid
+     */
+    private HttpURLConnection openConnection(String url, Duration timeout) throws Exception {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new SocketTimeoutException("Deadline passed before request to: " + url);
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("GET");
+        // Zero means no timeout for HttpURLConnection, so never go below one millisecond
+        int timeoutMs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, timeout.toMillis()));
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        return connection;
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(url);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, Thread::startVirtualThread);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getHtmlAsync(String url) {
+        return getAsync(url).thenApply(html -> {
+            Map<String, String> htmlContent = new HashMap<>();
+            htmlContent.put(url, html);
+            return htmlContent;
+        });
+    }
+}
@@ -0,0 +1,264 @@
+package com.leads.leadsgen.service.impl;
+
+import com.leads.leadsgen.exception.HttpStatusException;
+import com.leads.leadsgen.service.FetchResult;
+import com.leads.leadsgen.service.HttpClient;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * HttpClient backed by a single shared java.net.http.HttpClient. Connections are kept alive
+ * and reused per host, and HTTP/2 servers multiplex all requests over one connection, so
+ * crawling many pages of a site costs one TLS handshake instead of one per page.
+ */
+@Component
+@ConditionalOnProperty(name = "http.client.impl", havingValue = "pooled")
+public class PooledHttpClientImpl implements HttpClient {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; leadsgen/1.0)";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final java.net.http.HttpClient client;
+    private final Duration requestTimeout;
+    private final int maxBodyBytes;
+
+    public PooledHttpClientImpl(
+            @Value("${http.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${http.client.request-timeout-ms:15000}") long requestTimeoutMs,
+            @Value("${http.client.max-body-bytes:5242880}") int maxBodyBytes) {
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxBodyBytes = maxBodyBytes;
+        this.client = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .followRedirects(java.net.http.HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+    }
+
+    @Override
+    public String get(String url) throws Exception {
+        HttpResponse<InputStream> response = client.send(buildRequest(url), HttpResponse.BodyHandlers.ofInputStream());
+        return readBody(url, response);
+    }
+
+    @Override
+    public Map<String, String> getHtml(String url) throws Exception {
+        Map<String, String> htmlContent = new HashMap<>();
+        htmlContent.put(url, get(url));
+        return htmlContent;
+    }
+
+    @Override
+    public InputStream getStream(String url) throws Exception {
+        HttpResponse<InputStream> response = client.send(buildRequest(url), HttpResponse.BodyHandlers.ofInputStream());
+        InputStream body = response.body();
+
+        if (response.statusCode() >= 400) {
+            body.close();
+            throw new HttpStatusException(response.statusCode(), url);
+        }
+
+        return isGzipped(response) ? new GZIPInputStream(body) : body;
+    }
+
+    @Override
+    public InputStream getStream(String url, Duration timeout) throws Exception {
+        long start = System.nanoTime();
+        HttpRequest request = buildRequest(url, timeout);
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        InputStream body = response.body();
+
+        if (response.statusCode() >= 400) {
+            body.close();
+            throw new HttpStatusException(response.statusCode(), url);
+        }
+
+        // The request timeout only covers the response headers, the deadline covers reading the body
+        RequestDeadline deadline = new RequestDeadline(url, timeout.minusNanos(System.nanoTime() - start), () -> closeQuietly(body));
+        InputStream guarded = deadline.guard(body);
+        return isGzipped(response) ? new GZIPInputStream(guarded) : guarded;
+    }
+
+    @Override
+    public FetchResult getConditional(String url, String etag, String lastModified, Duration timeout) throws Exception {
+        long start = System.nanoTime();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(buildRequest(url, timeout), (name, value) -> true);
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
+
+        HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        String responseEtag = response.headers().firstValue("ETag").orElse(null);
+        String responseLastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+        if (response.statusCode() == FetchResult.NOT_MODIFIED) {
+            response.body().close();
+            return new FetchResult(FetchResult.NOT_MODIFIED, null, responseEtag, responseLastModified);
+        }
+
+        // The request timeout only covers the response headers, the deadline covers reading the body
+        InputStream body = response.body();
+        try (RequestDeadline deadline = new RequestDeadline(url, timeout.minusNanos(System.nanoTime() - start), () -> closeQuietly(body))) {
+            try {
+                return new FetchResult(response.statusCode(), readBody(url, response), responseEtag, responseLastModified);
+            } catch (IOException e) {
+                throw deadline.failure(e);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> getAsync(String url) {
+        HttpRequest request;
+        try {
+            request = buildRequest(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    try {
+                        return readBody(url, response);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> getHtmlAsync(String url) {
+        return getAsync(url).thenApply(html -> {
+            Map<String, String> htmlContent = new HashMap<>();
+            htmlContent.put(url, html);
+            return htmlContent;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Build a GET request for the given URL
+     *
+     * @param url URL to request
+     * @return The request
+     */
+    private HttpRequest buildRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    /**
+     * Build a GET request that gives up waiting for the response headers after the
+     * request timeout or the given timeout, whichever is shorter
+     *
+     * @param url     URL to request
+     * @param timeout Time the whole request may take
+     * @return The request
+     * @throws HttpTimeoutException if the timeout has already passed
+     */
+    private HttpRequest buildRequest(String url, Duration timeout) throws HttpTimeoutException {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new HttpTimeoutException("Deadline passed before request to: " + url);
+        }
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout.compareTo(requestTimeout) < 0 ? timeout : requestTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // Aborting the request, nothing left to do
+        }
+    }
+
+    /**
+     * Read the response body, decompressing it if needed. Bodies larger than the
+     * configured limit are truncated and the rest of the transfer is cancelled.
+     *
+     * @param url      Requested URL
+     * @param response Response to read
+     * @return The response body
+     * @throws IOException if the server returned an error status or the body could not be read
+     */
+    private String readBody(String url, HttpResponse<InputStream> response) throws IOException {
+        try (InputStream body = response.body()) {
+            if (response.statusCode() >= 400) {
+                throw new HttpStatusException(response.statusCode(), url);
+            }
+
+            InputStream in = isGzipped(response) ? new GZIPInputStream(body) : body;
+            byte[] bytes = in.readNBytes(maxBodyBytes);
+            return new String(bytes, getCharset(response));
+        }
+    }
+
+    /**
+     * Check whether the response body is gzip encoded
+     *
+     * @param response Response to inspect
+     * @return True if the Content-Encoding is gzip
+     */
+    private boolean isGzipped(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+    }
+
+    /**
+     * Get the charset from the Content-Type header, defaulting to UTF-8
+     *
+     * @param response Response to inspect
+     * @return The charset of the response body
+     */
+    private Charset getCharset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                } catch (Exception e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,99 @@
+package com.leads.leadsgen.service.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aborts a request that is still running when its timeout ends. Connect and read timeouts
+ * only bound each step, so a server trickling bytes could otherwise keep a request open
+ * far past the time its caller has left.
+ */
+final class RequestDeadline implements AutoCloseable {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String url;
+    private final ScheduledFuture<?> abort;
+    private volatile boolean expired;
+
+    /**
+     * @param url     Requested URL, for the timeout message
+     * @param timeout Time the request may take
+     * @param onAbort Closes the connection or body of the request, called once when the timeout ends
+     */
+    RequestDeadline(String url, Duration timeout, Runnable onAbort) {
+        this.url = url;
+        this.abort = SCHEDULER.schedule(() -> {
+            expired = true;
+            onAbort.run();
+        }, Math.max(1, timeout.toNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Report a failure of the request, as a timeout if the request was aborted
+     *
+     * @param e Failure of the request
+     * @return The failure to throw
+     */
+    IOException failure(IOException e) {
+        if (!expired) {
+            return e;
+        }
+        SocketTimeoutException timeout = new SocketTimeoutException("Request timed out: " + url);
+        timeout.initCause(e);
+        return timeout;
+    }
+
+    /**
+     * Wrap a response body so reading it stays bounded by the timeout and closing it ends the deadline
+     *
+     * @param body Response body
+     * @return Guarded body
+     */
+    InputStream guard(InputStream body) {
+        return new FilterInputStream(body) {
+            @Override
+            public int read() throws IOException {
+                try {
+                    return super.read();
+                } catch (IOException e) {
+                    throw failure(e);
+                }
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    return super.read(b, off, len);
+                } catch (IOException e) {
+                    throw failure(e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                RequestDeadline.this.close();
+                super.close();
+            }
+        };
+    }
+
+    /**
+     * End the deadline once the request is done
+     */
+    @Override
+    public void close() {
+        abort.cancel(false);
+    }
+}
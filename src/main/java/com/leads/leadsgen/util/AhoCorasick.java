@@ -0,0 +1,136 @@
+package com.leads.leadsgen.util;
+
+import java.util.*;
+
+/**
+ * Case-insensitive multi-pattern matcher for ASCII patterns. All patterns are compiled into
+ * one automaton, so a text is searched for every pattern in a single pass without
+ * lowercasing or copying it.
+ */
+public final class AhoCorasick {
+
+    private static final int ALPHABET = 128;
+
+    private final String[] patterns;
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    /**
+     * Compile a set of patterns
+     *
+     * @param patterns ASCII patterns to search for
+     */
+    public AhoCorasick(Collection<String> patterns) {
+        this.patterns = patterns.toArray(String[]::new);
+
+        List<int[]> trie = new ArrayList<>();
+        List<Set<Integer>> matches = new ArrayList<>();
+        trie.add(newState());
+        matches.add(new HashSet<>());
+
+        for (int p = 0; p < this.patterns.length; p++) {
+            int state = 0;
+            for (char c : this.patterns[p].toCharArray()) {
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Pattern is not ASCII: " + this.patterns[p]);
+                }
+                int symbol = toLower(c);
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState());
+                    matches.add(new HashSet<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            matches.get(state).add(p);
+        }
+
+        // Resolve failure links breadth first so every state has a transition for every symbol
+        int[] fail = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int next = trie.getFirst()[symbol];
+            if (next < 0) {
+                trie.getFirst()[symbol] = 0;
+            } else {
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            matches.get(state).addAll(matches.get(fail[state]));
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int next = trie.get(state)[symbol];
+                int fallback = trie.get(fail[state])[symbol];
+                if (next < 0) {
+                    trie.get(state)[symbol] = fallback;
+                } else {
+                    fail[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(int[][]::new);
+        this.outputs = new int[matches.size()][];
+        for (int state = 0; state < outputs.length; state++) {
+            outputs[state] = matches.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Check whether a text contains any of the patterns
+     *
+     * @param text Text to search
+     * @return True if at least one pattern occurs
+     */
+    public boolean containsAny(CharSequence text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find which of the patterns occur in a text
+     *
+     * @param text Text to search
+     * @return Patterns found, in the order they were given
+     */
+    public Set<String> findAll(CharSequence text) {
+        boolean[] found = new boolean[patterns.length];
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            for (int p : outputs[state]) {
+                found[p] = true;
+            }
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int p = 0; p < patterns.length; p++) {
+            if (found[p]) {
+                result.add(patterns[p]);
+            }
+        }
+        return result;
+    }
+
+    private int next(int state, char c) {
+        return c < ALPHABET ? transitions[state][toLower(c)] : 0;
+    }
+
+    private static int toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
@@ -0,0 +1,18 @@
+package com.leads.leadsgen.util;
+
+public final class StringUtils {
+
+    private StringUtils() {
+    }
+
+    /**
+     * Check whether a value starts with a prefix, ignoring case and without copying the value
+     *
+     * @param value  Value to check, may be null
+     * @param prefix Prefix to look for
+     * @return True if the value is not null and starts with the prefix
+     */
+    public static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
@@ -0,0 +1,53 @@
+package com.leads.leadsgen.util;
+
+import java.util.Locale;
+
+public final class UrlUtils {
+
+    private UrlUtils() {
+    }
+
+    /**
+     * Normalize a URL so that equivalent spellings compare equal. The scheme and host are
+     * lowercased, default ports and fragments are removed and an empty path is treated as "/".
+     * The path and query are kept as they are.
+     *
+     * @param url URL to normalize
+     * @return Normalized URL
+     */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+
+        int fragment = trimmed.indexOf('#');
+        if (fragment >= 0) {
+            trimmed = trimmed.substring(0, fragment);
+        }
+
+        int schemeEnd = trimmed.indexOf("://");
+        if (schemeEnd < 0) {
+            return trimmed;
+        }
+        String scheme = trimmed.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        String rest = trimmed.substring(schemeEnd + 3);
+
+        int authorityEnd = rest.length();
+        for (int i = 0; i < rest.length(); i++) {
+            char c = rest.charAt(i);
+            if (c == '/' || c == '?') {
+                authorityEnd = i;
+                break;
+            }
+        }
+        String authority = rest.substring(0, authorityEnd).toLowerCase(Locale.ROOT);
+        String pathAndQuery = rest.substring(authorityEnd);
+
+        if ((scheme.equals("https") && authority.endsWith(":443")) || (scheme.equals("http") && authority.endsWith(":80"))) {
+            authority = authority.substring(0, authority.lastIndexOf(':'));
+        }
+        if (pathAndQuery.isEmpty() || pathAndQuery.charAt(0) == '?') {
+            pathAndQuery = "/" + pathAndQuery;
+        }
+
+        return scheme + "://" + authority + pathAndQuery;
+    }
+}
@@ -1,6 +1,7 @@
 package com.leads.leadsgen.bdd.steps;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leads.leadsgen.service.FetchResult;
 import com.leads.leadsgen.service.HttpClient;
 import io.cucumber.java.en.*;
 import org.mockito.Mockito;
@@ -13,7 +14,11 @@ import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
@@ -32,6 +37,8 @@ public class CrawlingSteps {
     public void the_domain_will_return_valid_html(String domain) throws Exception {
         Mockito.when(httpClient.getHtml("https://" + domain))
                 .thenReturn(Map.of("https://" + domain, "<html>test@mail.com 0763230063</html>"));
+        Mockito.when(httpClient.getConditional(eq("https://" + domain), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html>test@mail.com 0763230063</html>", null, null));
 
         Mockito.when(httpClient.get(contains(domain)))
                 .thenReturn("User-agent: *\nDisallow:");
@@ -61,6 +68,10 @@ public class CrawlingSteps {
     public void when_I_GET(String endpoint) throws Exception {
         mvcResult = mockMvc.perform(get(endpoint))
                 .andReturn();
+        // Listings are streamed
+        if (mvcResult.getRequest().isAsyncStarted()) {
+            mvcResult = mockMvc.perform(asyncDispatch(mvcResult)).andReturn();
+        }
         assertThat(mvcResult.getResponse().getStatus()).isEqualTo(200);
     }
 
@@ -3,6 +3,7 @@ package com.leads.leadsgen.bdd.steps;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.repository.AssetRepository;
+import com.leads.leadsgen.service.FetchResult;
 import com.leads.leadsgen.service.HttpClient;
 import io.cucumber.java.en.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +11,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 import java.util.List;
@@ -52,6 +57,8 @@ public class ScanningSteps {
 
         when(httpClient.getHtml("https://" + domain))
                 .thenReturn(Map.of("https://" + domain, "<html></html>"));
+        when(httpClient.getConditional(eq("https://" + domain), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html></html>", null, null));
     }
 
     @When("I send a POST request to {string} with body:")
@@ -70,6 +77,10 @@ public class ScanningSteps {
         mvcResult = mockMvc.perform(get(endpoint))
                 .andExpect(status().isOk())
                 .andReturn();
+        // Listings are streamed
+        if (mvcResult.getRequest().isAsyncStarted()) {
+            mvcResult = mockMvc.perform(asyncDispatch(mvcResult)).andReturn();
+        }
     }
 
     @Then("I should see a report for {string}")
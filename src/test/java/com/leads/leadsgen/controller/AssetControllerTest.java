@@ -1,18 +1,32 @@
 package com.leads.leadsgen.controller;
 
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.ScanReportSummary;
 import com.leads.leadsgen.repository.AssetRepository;
 import com.leads.leadsgen.repository.ScanReportRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,20 +42,104 @@ class AssetControllerTest {
     @MockitoBean
     private ScanReportRepository scanReportRepository;
 
+    @MockitoBean
+    private EntityManager entityManager;
+
+    private Asset asset(long id, String domain) {
+        Asset asset = new Asset(domain, List.of("https://" + domain),
+                List.of("test@mail.com"), List.of("1234567890"), null, null);
+        ReflectionTestUtils.setField(asset, "id", id);
+        return asset;
+    }
+
     @Test
     void testGetAssets() throws Exception {
-        List<Asset> mockAssets = List.of(
-                new Asset("example.com", List.of("https://example.com"),
-                        List.of("test@mail.com"), List.of("1234567890"), null, null)
-        );
-        when(assetRepository.findAll()).thenReturn(mockAssets);
+        List<Asset> mockAssets = List.of(asset(1, "example.com"));
+        when(assetRepository.findPage(eq(0L), isNull(), isNull(), any())).thenReturn(mockAssets);
 
-        mockMvc.perform(get("/api/assets")
+        MvcResult result = mockMvc.perform(get("/api/assets")
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].domain").value("example.com"))
                 .andExpect(jsonPath("$[0].urls[0]").value("https://example.com"))
                 .andExpect(jsonPath("$[0].emails[0]").value("test@mail.com"))
                 .andExpect(jsonPath("$[0].phones[0]").value("1234567890"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAssets_Page() throws Exception {
+        when(assetRepository.findPage(10L, true, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(asset(11, "a.com"), asset(12, "b.com")));
+
+        MvcResult result = mockMvc.perform(get("/api/assets?afterId=10&limit=2&emailed=true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].domain").value("b.com"));
+    }
+
+    @Test
+    void testGetAssets_PageTooLarge() throws Exception {
+        mockMvc.perform(get("/api/assets?limit=100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAssets_Ndjson() throws Exception {
+        when(assetRepository.findPage(eq(0L), isNull(), isNull(), any()))
+                .thenReturn(List.of(asset(1, "a.com"), asset(2, "b.com")));
+
+        MvcResult result = mockMvc.perform(get("/api/assets").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).contains("\"domain\":\"b.com\""));
+    }
+
+    @Test
+    void testGetReportSummaries() throws Exception {
+        when(scanReportRepository.findSummaryPage(0L, null, "SeoScanner", null, PageRequest.of(0, 1)))
+                .thenReturn(List.of(new ScanReportSummary(5L, 1L, "example.com", "SeoScanner", true, LocalDateTime.parse("2025-01-01T10:00"))));
+
+        MvcResult result = mockMvc.perform(get("/api/reports/summary?limit=1&scanner=SeoScanner"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "5"))
+                .andExpect(jsonPath("$[0].domain").value("example.com"))
+                .andExpect(jsonPath("$[0].flagged").value(true))
+                .andExpect(jsonPath("$[0].report").doesNotExist());
+    }
+
+    @Test
+    void testGetReport() throws Exception {
+        ScanReport report = new ScanReport("SEO Report for: example.com", asset(1, "example.com"), true);
+        when(scanReportRepository.findById(5L)).thenReturn(Optional.of(report));
+        when(scanReportRepository.findById(6L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reports/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.report").value("SEO Report for: example.com"))
+                .andExpect(jsonPath("$.asset.domain").value("example.com"));
+
+        mockMvc.perform(get("/api/reports/6"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,12 +1,16 @@
 package com.leads.leadsgen.repository;
 
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanHistory;
+import com.leads.leadsgen.service.PageSnapshotStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +25,15 @@ public class AssetRepositoryTest {
     @Autowired
     private ScanReportRepository scanReportRepository;
 
+    @Autowired
+    private ScanHistoryRepository scanHistoryRepository;
+
+    @Autowired
+    private PageSnapshotStore snapshotStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     void setUp() {
         scanReportRepository.deleteAll();
@@ -45,5 +58,76 @@ public class AssetRepositoryTest {
 
         assertTrue(foundAsset.isPresent());
     }
-  
+
+    @Test
+    public void testFindByDomain_LoadsHtmlFromSnapshots() {
+        Asset asset = new Asset(
+                "snapshot.com",
+                List.of("https://snapshot.com"),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                null
+        );
+        assetRepository.save(asset);
+        snapshotStore.put("snapshot.com", "https://snapshot.com", "<html>snapshot</html>");
+
+        Asset foundAsset = assetRepository.findByDomain("snapshot.com").orElseThrow();
+
+        assertEquals(Map.of("https://snapshot.com", "<html>snapshot</html>"), foundAsset.getHtmlContents());
+    }
+
+    @Test
+    public void testScannedBy_ReadFromScanHistory() {
+        Asset asset = assetRepository.save(new Asset("history.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        scanHistoryRepository.saveAll(List.of(
+                new ScanHistory(asset, "DnsScanner", LocalDateTime.parse("2025-01-02T10:00")),
+                new ScanHistory(asset, "SeoScanner", LocalDateTime.parse("2025-01-01T10:00"))
+        ));
+
+        List<Map<String, String>> scannedBy = transactionTemplate.execute(status ->
+                assetRepository.findByDomain("history.com").orElseThrow().getScannedBy());
+
+        assertEquals(List.of(
+                Map.of("scanner", "SeoScanner", "datetime", "2025-01-01T10:00"),
+                Map.of("scanner", "DnsScanner", "datetime", "2025-01-02T10:00")
+        ), scannedBy);
+
+        assetRepository.save(new Asset("fresh.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        assertNull(transactionTemplate.execute(status ->
+                assetRepository.findByDomain("fresh.com").orElseThrow().getScannedBy()));
+    }
+
+    @Test
+    public void testLists_StoredAsRows() {
+        Asset asset = new Asset(
+                "lists.com",
+                List.of("https://lists.com/a,b", "https://lists.com"),
+                List.of("info@lists.com", ""),
+                new ArrayList<>(),
+                null,
+                null
+        );
+        assetRepository.save(asset);
+
+        Asset foundAsset = assetRepository.findByDomain("lists.com").orElseThrow();
+
+        assertEquals(List.of("https://lists.com/a,b", "https://lists.com"), foundAsset.getUrls());
+        assertEquals(List.of("info@lists.com"), foundAsset.getEmails());
+        assertTrue(foundAsset.getPhones().isEmpty());
+    }
+
+    @Test
+    public void testFindWithOwnDomainEmail() {
+        assetRepository.save(new Asset("own.com", new ArrayList<>(), List.of("Info@Own.com"), new ArrayList<>(), null, null));
+        assetRepository.save(new Asset("www.own-www.com", new ArrayList<>(), List.of("gmail@gmail.com", "sales@own-www.com"), new ArrayList<>(), null, null));
+        assetRepository.save(new Asset("other.com", new ArrayList<>(), List.of("someone@gmail.com"), new ArrayList<>(), null, null));
+
+        List<String> domains = assetRepository.findWithOwnDomainEmail().stream().map(Asset::getDomain).sorted().toList();
+
+        assertEquals(List.of("own.com", "www.own-www.com"), domains);
+    }
+
 }
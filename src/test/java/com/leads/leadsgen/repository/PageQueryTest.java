@@ -0,0 +1,83 @@
+package com.leads.leadsgen.repository;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the SQL of the keyset page queries, the collections of a page must only be read
+ * for the rows of that page
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.leads.leadsgen.repository.PageQueryTest$SqlCapture")
+@ActiveProfiles("test")
+public class PageQueryTest {
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ScanReportRepository scanReportRepository;
+
+    @BeforeEach
+    void setUp() {
+        scanReportRepository.deleteAll();
+        assetRepository.deleteAll();
+        for (int i = 1; i <= 3; i++) {
+            Asset asset = assetRepository.save(new Asset("page" + i + ".com", List.of("https://page" + i + ".com"),
+                    List.of("info@page" + i + ".com"), List.of("07000000" + i), null, null));
+            ScanReport report = new ScanReport("Report " + i, asset, false);
+            report.setScanner("SeoScanner");
+            scanReportRepository.save(report);
+        }
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    public void testAssetPage_LoadsCollectionsOfPageOnly() {
+        List<Asset> page = assetRepository.findPage(0, null, null, PageRequest.of(0, 2));
+
+        assertEquals(2, page.size());
+        assertEquals(List.of("https://page2.com"), page.get(1).getUrls());
+        assertCollectionsLoadedByPageIds();
+    }
+
+    @Test
+    public void testReportPage_LoadsCollectionsOfPageOnly() {
+        List<ScanReport> page = scanReportRepository.findPage(0, null, null, null, PageRequest.of(0, 2));
+
+        assertEquals(2, page.size());
+        assertCollectionsLoadedByPageIds();
+    }
+
+    private void assertCollectionsLoadedByPageIds() {
+        for (String table : List.of("asset_url", "asset_email", "asset_phone")) {
+            List<String> statements = SqlCapture.STATEMENTS.stream().filter(sql -> sql.contains(" from " + table + " ")).toList();
+            assertEquals(1, statements.size(), table + ": " + statements);
+            // A subselect would repeat the page query without its limit
+            assertFalse(statements.getFirst().contains(" from asset "), statements.getFirst());
+            assertFalse(statements.getFirst().contains(" from scan_report "), statements.getFirst());
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.leads.leadsgen.repository;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanFinding;
+import com.leads.leadsgen.model.ScanFindingView;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.Severity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ScanFindingRepositoryTest {
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private ScanReportRepository scanReportRepository;
+
+    @Autowired
+    private ScanFindingRepository scanFindingRepository;
+
+    @BeforeEach
+    void setUp() {
+        scanReportRepository.deleteAll();
+        assetRepository.deleteAll();
+    }
+
+    @Test
+    public void testSearchByCheckAndSeverity() {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport report = new ScanReport("SEO Report", asset, true);
+        report.setScanner("SeoScanner");
+        report.addFinding(new ScanFinding("https://example.com", "meta-description", Severity.WARNING, "Missing meta description", 10));
+        report.addFinding(new ScanFinding("https://example.com/about", "meta-description", Severity.WARNING, "Missing meta description", 10));
+        report.addFinding(new ScanFinding("https://example.com", "title", Severity.ERROR, "Missing title tag", 10));
+        scanReportRepository.save(report);
+
+        List<ScanFindingView> missingMeta = scanFindingRepository.search("meta-description", null, null, PageRequest.of(0, 100));
+
+        assertEquals(2, missingMeta.size());
+        assertEquals("example.com", missingMeta.getFirst().domain());
+        assertEquals("SeoScanner", missingMeta.getFirst().scanner());
+        assertEquals(report.getId(), missingMeta.getFirst().reportId());
+
+        List<ScanFindingView> errors = scanFindingRepository.search(null, Severity.ERROR, "SeoScanner", PageRequest.of(0, 100));
+
+        assertEquals(1, errors.size());
+        assertEquals("title", errors.getFirst().checkId());
+
+        assertEquals(3, scanFindingRepository.findByReportIdOrderByIdAsc(report.getId()).size());
+    }
+
+    @Test
+    public void testSave_LongMessageIsCutToColumn() {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport report = new ScanReport("SEO Report", asset, true);
+        report.setScanner("SeoScanner");
+        report.addFinding(new ScanFinding("https://example.com", "img-alt", Severity.WARNING, "x".repeat(20000), 0));
+        scanReportRepository.save(report);
+
+        List<ScanFinding> findings = scanFindingRepository.findByReportIdOrderByIdAsc(report.getId());
+        assertEquals(1, findings.size());
+        assertEquals(ScanFinding.MAX_MESSAGE_LENGTH, findings.getFirst().getMessage().length());
+    }
+
+}
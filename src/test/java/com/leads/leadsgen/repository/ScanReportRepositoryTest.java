@@ -2,10 +2,12 @@ package com.leads.leadsgen.repository;
 
 import com.leads.leadsgen.model.Asset;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.ScanReportSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.*;
@@ -33,8 +35,8 @@ public class ScanReportRepositoryTest {
 
         List<Map<String, String>> scannedBy = new ArrayList<>();
         scannedBy.add(new HashMap<>());
-        scannedBy.getFirst().put("name", "Scanner1");
-        scannedBy.getFirst().put("date", "2024-12-27");
+        scannedBy.getFirst().put("scanner", "Scanner1");
+        scannedBy.getFirst().put("datetime", "2024-12-27T10:00");
 
 
         Asset asset = new Asset(
@@ -42,11 +44,10 @@ public class ScanReportRepositoryTest {
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
-                null,
+                scannedBy,
                 null
         );
 
-        asset.setScannedBy(scannedBy);
         assetRepository.save(asset);
 
         ScanReport scanReport = new ScanReport(
@@ -64,4 +65,100 @@ public class ScanReportRepositoryTest {
         assertTrue(foundScanReport.isPresent());
     }
 
+    @Test
+    public void testFindLatestByAssetAndScanner() throws Exception {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport older = new ScanReport("Older", asset, true);
+        older.setScanner("SeoScanner");
+        older.setFingerprint("a");
+        scanReportRepository.save(older);
+
+        Thread.sleep(5);
+        ScanReport newer = new ScanReport("Newer", asset, false);
+        newer.setScanner("SeoScanner");
+        newer.setFingerprint("b");
+        scanReportRepository.save(newer);
+
+        ScanReport otherScanner = new ScanReport("Other", asset, false);
+        otherScanner.setScanner("DnsScanner");
+        scanReportRepository.save(otherScanner);
+
+        Optional<ScanReport> latest = scanReportRepository.findFirstByAssetIdAndScannerOrderByCreatedAtDesc(asset.getId(), "SeoScanner");
+
+        assertTrue(latest.isPresent());
+        assertEquals("Newer", latest.get().getReport());
+        assertEquals("b", latest.get().getFingerprint());
+    }
+
+    @Test
+    public void testFindSummaryPage() {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport flagged = new ScanReport("Flagged", asset, true);
+        flagged.setScanner("SeoScanner");
+        scanReportRepository.save(flagged);
+
+        ScanReport clean = new ScanReport("Clean", asset, false);
+        clean.setScanner("SeoScanner");
+        scanReportRepository.save(clean);
+
+        List<ScanReportSummary> summaries = scanReportRepository.findSummaryPage(0, asset.getId(), "SeoScanner", true, PageRequest.of(0, 10));
+
+        assertEquals(1, summaries.size());
+        assertEquals(flagged.getId(), summaries.getFirst().id());
+        assertEquals("example.com", summaries.getFirst().domain());
+        assertTrue(summaries.getFirst().flagged());
+
+        assertTrue(scanReportRepository.findSummaryPage(clean.getId(), null, null, null, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void testFindLatestReports() throws Exception {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+        Asset otherAsset = assetRepository.save(new Asset("other.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport older = new ScanReport("Older", asset, true);
+        older.setScanner("SeoScanner");
+        scanReportRepository.save(older);
+
+        Thread.sleep(5);
+        ScanReport newer = new ScanReport("Newer", asset, false);
+        newer.setScanner("SeoScanner");
+        scanReportRepository.save(newer);
+
+        ScanReport other = new ScanReport("Other", otherAsset, false);
+        other.setScanner("DnsScanner");
+        scanReportRepository.save(other);
+
+        // Used to throw once an asset had two reports
+        assertEquals("Newer", scanReportRepository.findByAssetDomain("example.com").orElseThrow().getReport());
+
+        List<ScanReportSummary> latest = scanReportRepository.findLatestByAssetIds(List.of(asset.getId(), otherAsset.getId()));
+
+        assertEquals(List.of(newer.getId(), other.getId()), latest.stream().map(ScanReportSummary::id).toList());
+
+        assertEquals(2, assetRepository.updateLastReportIds(List.of(asset.getId(), otherAsset.getId())));
+        assertEquals(newer.getId(), assetRepository.findById(asset.getId()).orElseThrow().getLastReportId());
+        assertEquals(other.getId(), assetRepository.findById(otherAsset.getId()).orElseThrow().getLastReportId());
+    }
+
+    @Test
+    public void testSave_StaleAssetKeepsLastReportId() {
+        Asset asset = assetRepository.save(new Asset("example.com", new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), null, null));
+
+        ScanReport report = new ScanReport("Report", asset, false);
+        report.setScanner("SeoScanner");
+        scanReportRepository.save(report);
+        assetRepository.updateLastReportIds(List.of(asset.getId()));
+
+        // Loaded before the bulk update, as a crawl does
+        asset.setEmailed(true);
+        assetRepository.save(asset);
+
+        Asset saved = assetRepository.findById(asset.getId()).orElseThrow();
+        assertTrue(saved.isEmailed());
+        assertEquals(report.getId(), saved.getLastReportId());
+    }
+
 }
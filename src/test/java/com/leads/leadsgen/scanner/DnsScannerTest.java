@@ -0,0 +1,84 @@
+package com.leads.leadsgen.scanner;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.service.dns.DnsResolver;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DnsScannerTest {
+
+    private final DnsResolver dnsResolver = mock(DnsResolver.class);
+    private final DnsScanner dnsScanner = new DnsScanner(dnsResolver);
+
+    private Asset arrangeTestCase(List<String> emails) {
+        when(dnsResolver.lookupMx(anyString())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(dnsResolver.lookupTxt(anyString())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        return new Asset("www.example.com", List.of("https://www.example.com"), emails, List.of(), List.of(), Map.of());
+    }
+
+    @Test
+    public void testScan_AllRecordsPresent() {
+        Asset asset = arrangeTestCase(List.of("info@example.com"));
+        when(dnsResolver.lookupMx("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("mx1.example.com")));
+        when(dnsResolver.lookupTxt("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=spf1 -all", "other")));
+        when(dnsResolver.lookupTxt("_dmarc.example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=DMARC1; p=reject")));
+
+        ScanReport report = dnsScanner.scan(asset);
+
+        assertFalse(report.isFlagged());
+        assertTrue(report.getReport().contains("MX: mx1.example.com"));
+        assertTrue(report.getReport().contains("SPF: v=spf1 -all\n"));
+        assertTrue(report.getReport().contains("DMARC: v=DMARC1; p=reject"));
+        assertFalse(report.getReport().contains("Email domains"));
+    }
+
+    @Test
+    public void testScan_MissingRecordsAreFlagged() {
+        Asset asset = arrangeTestCase(List.of());
+        when(dnsResolver.lookupMx("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("mx1.example.com")));
+
+        ScanReport report = dnsScanner.scan(asset);
+
+        assertTrue(report.isFlagged());
+        assertTrue(report.getReport().contains("SPF: Missing"));
+        assertTrue(report.getReport().contains("DMARC: Missing"));
+    }
+
+    @Test
+    public void testScan_EmailDomainWithoutMx() {
+        Asset asset = arrangeTestCase(List.of("sales@gmail.com", "old@defunct.example"));
+        when(dnsResolver.lookupMx("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("mx1.example.com")));
+        when(dnsResolver.lookupTxt("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=spf1 -all")));
+        when(dnsResolver.lookupTxt("_dmarc.example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=DMARC1; p=none")));
+        when(dnsResolver.lookupMx("gmail.com")).thenReturn(CompletableFuture.completedFuture(List.of("gmail-smtp-in.l.google.com")));
+
+        ScanReport report = dnsScanner.scan(asset);
+
+        assertTrue(report.isFlagged());
+        assertTrue(report.getReport().contains(" - defunct.example: No MX records, emails to this domain will bounce"));
+        assertTrue(report.getReport().contains(" - gmail.com: gmail-smtp-in.l.google.com"));
+    }
+
+    @Test
+    public void testScan_LookupFailureIsNotFlagged() {
+        Asset asset = arrangeTestCase(List.of());
+        when(dnsResolver.lookupMx("example.com")).thenReturn(CompletableFuture.failedFuture(new SocketTimeoutException("DNS query for example.com timed out")));
+        when(dnsResolver.lookupTxt("example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=spf1 -all")));
+        when(dnsResolver.lookupTxt("_dmarc.example.com")).thenReturn(CompletableFuture.completedFuture(List.of("v=DMARC1; p=none")));
+
+        ScanReport report = dnsScanner.scan(asset);
+
+        assertFalse(report.isFlagged());
+        assertTrue(report.getReport().contains("MX: Lookup failed (DNS query for example.com timed out)"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.leads.leadsgen.scanner;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScannerRegistryTest {
+
+    private static Scanner scanner(String name) {
+        return new Scanner(name) {
+            @Override
+            public ScanReport scan(Asset asset) {
+                return new ScanReport(name, asset, false);
+            }
+        };
+    }
+
+    @Test
+    public void testGet() {
+        Scanner seo = scanner("SeoScanner");
+        Scanner tracker = scanner("TrackerConsentScanner");
+        ScannerRegistry registry = new ScannerRegistry(List.of(seo, tracker));
+
+        assertSame(seo, registry.get("SeoScanner"));
+        assertSame(tracker, registry.get("TrackerConsentScanner"));
+        assertEquals(Set.of("SeoScanner", "TrackerConsentScanner"), registry.getNames());
+    }
+
+    @Test
+    public void testGet_UnknownScanner() {
+        ScannerRegistry registry = new ScannerRegistry(List.of(scanner("SeoScanner")));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> registry.get("UnknownScanner"));
+        assertEquals("Invalid scanner: UnknownScanner", e.getMessage());
+    }
+
+    @Test
+    public void testDuplicateNames() {
+        assertThrows(IllegalStateException.class, () -> new ScannerRegistry(List.of(scanner("SeoScanner"), scanner("SeoScanner"))));
+    }
+}
@@ -1,18 +1,46 @@
 package com.leads.leadsgen.scanner;
 
+import com.leads.leadsgen.exception.HttpStatusException;
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanFinding;
 import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.model.Severity;
+import com.leads.leadsgen.service.CrawlService;
+import com.leads.leadsgen.service.FetchResult;
+import com.leads.leadsgen.service.HttpClient;
+import com.leads.leadsgen.service.LinkCheckService;
+import com.leads.leadsgen.service.PageSnapshotStore;
+import com.leads.leadsgen.service.RobotsService;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class SeoScannerTest {
 
-    private final SeoScanner seoScanner = new SeoScanner();
+    private final HttpClient httpClient = mock(HttpClient.class);
+
+    @TempDir
+    static Path snapshotDir;
+
+    private final SeoScanner seoScanner = new SeoScanner(
+            new CrawlService(httpClient, new PageSnapshotStore(snapshotDir.toString())),
+            new RobotsService(httpClient),
+            new LinkCheckService()
+    );
 
     private Asset arrangeTestCase(Map<String, String> htmlContents) {
         List<String> urls = new ArrayList<>(htmlContents.keySet());
@@ -42,6 +70,21 @@ public class SeoScannerTest {
         assertContains(scanReport, "Missing alt attribute in img tag: <img src='image.jpg' />");
     }
 
+    @Test
+    public void testScan_MissingAltOnInlineImageKeepsFindingWithinColumn() {
+        String image = "<img src='data:image/png;base64," + "iVBORw0KGgo".repeat(1000) + "' />";
+        Asset asset = arrangeTestCase(Map.of("https://example.com", image));
+
+        ScanReport scanReport = seoScanner.scan(asset);
+
+        ScanFinding imgAlt = scanReport.getFindings().stream()
+                .filter(finding -> finding.getCheckId().equals("img-alt"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(imgAlt.getMessage().startsWith("Missing alt attribute in img tag: <img src='data:image/png;base64,"));
+        assertTrue(imgAlt.getMessage().length() <= ScanFinding.MAX_MESSAGE_LENGTH);
+    }
+
     @Test
     public void testScan_BrokenLinks() {
 
@@ -98,7 +141,77 @@ public class SeoScannerTest {
     }
 
     @Test
-    public void testScan_MissingFiles() {
+    public void testScan_MissingFiles() throws Exception {
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(404, "https://example.com/robots.txt"));
+
+        Asset asset = arrangeTestCase(Map.of());
+
+        ScanReport scanReport = seoScanner.scan(asset);
+
+        assertContains(scanReport, "Missing robots.txt");
+    }
+
+    @Test
+    public void testScan_UnreachableRobotsTxtIsNotMissing() throws Exception {
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(503, "https://example.com/robots.txt"));
+
+        Asset asset = arrangeTestCase(Map.of("https://example.com", "<html></html>"));
+
+        ScanReport scanReport = seoScanner.scan(asset);
+
+        assertFalse(scanReport.getReport().contains("Missing robots.txt"));
+        ScanFinding unreachable = scanReport.getFindings().stream()
+                .filter(finding -> finding.getCheckId().equals("robots-txt-unreachable"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(Severity.INFO, unreachable.getSeverity());
+    }
+
+    @Test
+    public void testScan_RobotsTxtPresent() throws Exception {
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any())).thenReturn(new FetchResult(200, "User-agent: *\nDisallow: /admin", null, null));
+
+        Asset asset = arrangeTestCase(Map.of("https://example.com", "<html></html>"));
+
+        ScanReport scanReport = seoScanner.scan(asset);
+
+        assertFalse(scanReport.getReport().contains("Missing robots.txt"));
+    }
+
+    @Test
+    public void testFingerprint_ChangesWithContent() {
+        Asset asset = arrangeTestCase(Map.of("https://example.com", "<html><title>Example</title></html>"));
+        Asset unchanged = arrangeTestCase(Map.of("https://example.com", "<html><title>Example</title></html>"));
+        Asset changed = arrangeTestCase(Map.of("https://example.com", "<html><title>Changed</title></html>"));
+
+        assertEquals(seoScanner.fingerprint(asset), seoScanner.fingerprint(unchanged));
+        assertNotEquals(seoScanner.fingerprint(asset), seoScanner.fingerprint(changed));
+    }
+
+    @Test
+    public void testScan_FindingsCarryCheckIds() throws Exception {
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(404, "https://example.com/robots.txt"));
+        Asset asset = arrangeTestCase(Map.of(
+                "https://example.com", "<title>Example Domain Home</title><img src='image.jpg' />"
+        ));
+
+        ScanReport scanReport = seoScanner.scan(asset);
+
+        ScanFinding imgAlt = scanReport.getFindings().stream()
+                .filter(finding -> finding.getCheckId().equals("img-alt"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("https://example.com", imgAlt.getUrl());
+        assertEquals(Severity.WARNING, imgAlt.getSeverity());
+        assertTrue(imgAlt.getScoreContribution() > 0);
+        assertTrue(scanReport.getFindings().stream().anyMatch(finding ->
+                finding.getCheckId().equals("robots-txt") && finding.getUrl().equals("example.com")));
+        assertTrue(scanReport.getFindings().stream().noneMatch(finding -> finding.getCheckId().equals("title")));
+
+        assertContains(scanReport, ScanReport.renderFindings(scanReport.getFindings()));
     }
 
 }
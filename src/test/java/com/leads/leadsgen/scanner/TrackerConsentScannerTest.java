@@ -0,0 +1,48 @@
+package com.leads.leadsgen.scanner;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.scanner.browser.BrowserSessionPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class TrackerConsentScannerTest {
+
+    private final BrowserSessionPool browserSessionPool = mock(BrowserSessionPool.class);
+    private final TrackerConsentScanner scanner = new TrackerConsentScanner(browserSessionPool);
+
+    private Asset arrangeTestCase(Map<String, String> htmlContents) {
+        return new Asset("example.com", List.of("https://example.com"), List.of(), List.of(), List.of(), htmlContents);
+    }
+
+    @Test
+    public void testScan_SkipsBrowserWithoutTrackerCode() throws Exception {
+        Asset asset = arrangeTestCase(Map.of(
+                "https://example.com", "<html><head><title>Example</title></head><body>Hello</body></html>"
+        ));
+
+        ScanReport report = scanner.scan(asset);
+
+        assertFalse(report.isFlagged());
+        assertTrue(report.getReport().contains("no tracker code found"));
+        verify(browserSessionPool, never()).lease();
+    }
+
+    @Test
+    public void testScan_UsesBrowserWhenTrackerCodeFound() throws Exception {
+        Asset asset = arrangeTestCase(Map.of(
+                "https://example.com", "<script async src=\"https://www.googletagmanager.com/gtag/js?id=G-TEST\"></script>"
+        ));
+        when(browserSessionPool.lease()).thenThrow(new IllegalStateException("No browser in tests"));
+
+        scanner.scan(asset);
+
+        verify(browserSessionPool).lease();
+    }
+}
@@ -0,0 +1,107 @@
+package com.leads.leadsgen.scanner.browser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BrowserSessionPoolTest {
+
+    private final AtomicInteger started = new AtomicInteger();
+
+    private BrowserSession newSession() {
+        started.incrementAndGet();
+        BrowserSession session = spy(new BrowserSession(null, null));
+        doReturn(true).when(session).isHealthy();
+        doNothing().when(session).reset();
+        doNothing().when(session).close();
+        return session;
+    }
+
+    @Test
+    public void testLease_ReusesResetSession() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 2, 10, false);
+
+        BrowserSession first = pool.lease();
+        pool.release(first);
+        BrowserSession second = pool.lease();
+
+        assertSame(first, second);
+        assertEquals(1, started.get());
+        verify(first).reset();
+    }
+
+    @Test
+    public void testLease_ReplacesUnhealthySession() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 2, 10, false);
+
+        BrowserSession first = pool.lease();
+        pool.release(first);
+        doReturn(false).when(first).isHealthy();
+        BrowserSession second = pool.lease();
+
+        assertNotSame(first, second);
+        verify(first).close();
+    }
+
+    @Test
+    public void testRelease_ClosesSessionThatFailsToReset() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 2, 10, false);
+
+        BrowserSession session = pool.lease();
+        doThrow(new RuntimeException("Session is dead")).when(session).reset();
+        pool.release(session);
+
+        assertEquals(0, pool.getIdleCount());
+        verify(session).close();
+    }
+
+    @Test
+    public void testRelease_RecyclesSessionAfterMaxUses() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 1, 2, false);
+
+        BrowserSession session = pool.lease();
+        pool.release(session);
+        assertSame(session, pool.lease());
+        pool.release(session);
+
+        assertEquals(0, pool.getIdleCount());
+        verify(session).close();
+    }
+
+    @Test
+    public void testLease_WaitsWhenPoolIsExhausted() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 1, 10, false);
+
+        BrowserSession session = pool.lease();
+        CompletableFuture<BrowserSession> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.lease();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        assertThrows(TimeoutException.class, () -> waiting.get(200, TimeUnit.MILLISECONDS));
+        pool.release(session);
+        assertSame(session, waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPrewarm() throws Exception {
+        BrowserSessionPool pool = new BrowserSessionPool(this::newSession, 2, 10, true);
+
+        pool.prewarm();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getIdleCount() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, pool.getIdleCount());
+    }
+}
@@ -0,0 +1,96 @@
+package com.leads.leadsgen.scanner.browser;
+
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BrowserSessionTest {
+
+    /**
+     * A browser that keeps cookies per origin, where WebDriver only deletes the cookies of
+     * the current page and DevTools deletes them all
+     */
+    private final Map<String, String> cookies = new HashMap<>();
+    private String currentOrigin;
+    private final List<String> clearedOrigins = new ArrayList<>();
+
+    private WebDriver newDriver() {
+        WebDriver driver = mock(WebDriver.class, withSettings().extraInterfaces(HasCdp.class));
+        WebDriver.Options options = mock(WebDriver.Options.class);
+        when(driver.manage()).thenReturn(options);
+        doAnswer(invocation -> {
+            currentOrigin = invocation.getArgument(0);
+            return null;
+        }).when(driver).get(anyString());
+        doAnswer(invocation -> cookies.remove(currentOrigin)).when(options).deleteAllCookies();
+        when(((HasCdp) driver).executeCdpCommand(eq("Network.clearBrowserCookies"), anyMap())).thenAnswer(invocation -> {
+            cookies.clear();
+            return Map.of();
+        });
+        // Chromium only accepts a real origin here, "*" fails with InvalidParams
+        when(((HasCdp) driver).executeCdpCommand(eq("Storage.clearDataForOrigin"), anyMap())).thenAnswer(invocation -> {
+            Map<String, Object> parameters = invocation.getArgument(1);
+            String origin = (String) parameters.get("origin");
+            if (!origin.matches("https?://[^/*]+")) {
+                throw new WebDriverException("Invalid parameters: origin " + origin);
+            }
+            clearedOrigins.add(origin);
+            return Map.of();
+        });
+        return driver;
+    }
+
+    @Test
+    public void testReset_ClearsCookiesOfEveryOrigin() {
+        WebDriver driver = newDriver();
+        BrowserSession session = new BrowserSession(null, driver);
+
+        driver.get("https://first.example");
+        session.recordOrigin("https://first.example/");
+        session.recordOrigin("https://tracker.example:8443/pixel.gif?id=1");
+        cookies.put("https://first.example", "session=1");
+        driver.get("https://second.example");
+        session.recordOrigin("HTTPS://Second.example:443/about");
+        session.reset();
+
+        assertTrue(cookies.isEmpty());
+        assertEquals("about:blank", currentOrigin);
+        assertEquals(Set.of("https://first.example", "https://tracker.example:8443", "https://second.example"), Set.copyOf(clearedOrigins));
+
+        clearedOrigins.clear();
+        session.reset();
+        assertTrue(clearedOrigins.isEmpty(), "Origins are cleared once");
+    }
+
+    @Test
+    public void testRelease_ResetSessionIsLeasedAgain() throws Exception {
+        BrowserSession session = spy(new BrowserSession(null, newDriver()));
+        doReturn(true).when(session).isHealthy();
+        BrowserSessionPool pool = new BrowserSessionPool(() -> session, 1, 10, false);
+
+        BrowserSession first = pool.lease();
+        first.recordOrigin("https://first.example/");
+        pool.release(first);
+
+        assertSame(first, pool.lease());
+        verify(session, never()).close();
+    }
+
+    @Test
+    public void testReset_FailsWithoutDevTools() {
+        BrowserSession session = new BrowserSession(null, mock(WebDriver.class));
+
+        assertThrows(IllegalStateException.class, session::reset);
+    }
+}
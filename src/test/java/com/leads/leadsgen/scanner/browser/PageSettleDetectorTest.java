@@ -0,0 +1,64 @@
+package com.leads.leadsgen.scanner.browser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageSettleDetectorTest {
+
+    private final PageSettleDetector detector = new PageSettleDetector();
+
+    @Test
+    public void testAwaitSettled_WhenNetworkIsIdle() throws Exception {
+        detector.reset();
+
+        long start = System.nanoTime();
+        assertTrue(detector.awaitSettled(Duration.ofMillis(100), Duration.ofSeconds(5)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    public void testAwaitSettled_StopsOnCollectHit() throws Exception {
+        detector.reset();
+        String collect = "https://region1.google-analytics.com/g/collect?v=2&tid=G-TEST";
+
+        Thread.startVirtualThread(() -> {
+            sleep(50);
+            detector.recordActivity(collect);
+        });
+
+        long start = System.nanoTime();
+        assertTrue(detector.awaitSettled(Duration.ofSeconds(10), Duration.ofSeconds(20)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+        assertEquals(List.of(collect), detector.getCollectRequests());
+    }
+
+    @Test
+    public void testAwaitSettled_GivesUpAtMaxWait() throws Exception {
+        detector.reset();
+
+        Thread traffic = Thread.startVirtualThread(() -> {
+            for (int i = 0; i < 40; i++) {
+                detector.recordActivity("https://example.com/asset" + i);
+                sleep(10);
+            }
+        });
+
+        assertFalse(detector.awaitSettled(Duration.ofMillis(200), Duration.ofMillis(150)));
+        traffic.join();
+        assertTrue(detector.getCollectRequests().isEmpty());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.leads.leadsgen.scanner.html;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HtmlTokenizerTest {
+
+    private List<String> tokenize(String html) {
+        List<String> tokens = new ArrayList<>();
+        HtmlTokenizer.tokenize(html, new HtmlVisitor() {
+            @Override
+            public void startTag(String name, Map<String, String> attributes, String rawTag) {
+                tokens.add("<" + name + " " + new TreeMap<>(attributes) + ">");
+            }
+
+            @Override
+            public void endTag(String name) {
+                tokens.add("</" + name + ">");
+            }
+
+            @Override
+            public void text(String text) {
+                tokens.add(text);
+            }
+        });
+        return tokens;
+    }
+
+    @Test
+    public void testTokenize_TagsAndText() {
+        List<String> tokens = tokenize("<!DOCTYPE html><H1 Class=\"main\">Hello <b>world</b></h1>");
+
+        assertEquals(List.of("<h1 {class=main}>", "Hello ", "<b {}>", "world", "</b>", "</h1>"), tokens);
+    }
+
+    @Test
+    public void testTokenize_Attributes() {
+        List<String> tokens = tokenize("<img src='a.jpg' alt=\"A > B\" width=10 hidden/>");
+
+        assertEquals(List.of("<img {alt=A > B, hidden=, src=a.jpg, width=10}>"), tokens);
+    }
+
+    @Test
+    public void testTokenize_RawTextIsNotParsed() {
+        List<String> tokens = tokenize("<script>if (a < b) { x = '<a href=\"x\">'; }</script><p>after</p>");
+
+        assertEquals(List.of("<script {}>", "if (a < b) { x = '<a href=\"x\">'; }", "</script>", "<p {}>", "after", "</p>"), tokens);
+    }
+
+    @Test
+    public void testTokenize_SkipsComments() {
+        List<String> tokens = tokenize("a<!-- <img src='x.jpg'> -->b < c");
+
+        assertEquals(List.of("a", "b < c"), tokens);
+    }
+
+    @Test
+    public void testTokenize_RawTag() {
+        List<String> rawTags = new ArrayList<>();
+        HtmlTokenizer.tokenize("<p><img src='image.jpg' /></p>", new HtmlVisitor() {
+            @Override
+            public void startTag(String name, Map<String, String> attributes, String rawTag) {
+                rawTags.add(rawTag);
+            }
+        });
+
+        assertEquals(List.of("<p>", "<img src='image.jpg' />"), rawTags);
+    }
+}
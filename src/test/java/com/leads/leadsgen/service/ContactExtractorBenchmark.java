@@ -0,0 +1,82 @@
+package com.leads.leadsgen.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the ContactExtractor with the regex sweeps it replaced on real-world page fixtures.
+ * Run with:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.leads.leadsgen.service.ContactExtractorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactExtractorBenchmark {
+
+    @Param({"company-home.html", "contact.html", "shop-collection.html"})
+    public String fixture;
+
+    private String html;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/pages/" + fixture)) {
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public void regex(Blackhole blackhole) {
+        Set<String> emails = new HashSet<>();
+        Pattern emailPattern = Pattern.compile("[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+        Matcher emailMatcher = emailPattern.matcher(html);
+        while (emailMatcher.find()) {
+            emails.add(emailMatcher.group());
+        }
+
+        Set<String> phones = new HashSet<>();
+        Pattern phonePattern = Pattern.compile(
+                "(?:\\+\\d{1,3}[-.\\s]?)?" +
+                        "(?:\\(\\d{1,4}\\)|\\d{1,4})?" +
+                        "\\d{3,4}[-.\\s]?\\d{2,4}[-.\\s]?\\d{2,4}"
+        );
+        Matcher phoneMatcher = phonePattern.matcher(html);
+        while (phoneMatcher.find()) {
+            phones.add(phoneMatcher.group());
+        }
+
+        blackhole.consume(emails);
+        blackhole.consume(phones);
+    }
+
+    @Benchmark
+    public void contactExtractor(Blackhole blackhole) {
+        ContactExtractor contactExtractor = new ContactExtractor();
+        contactExtractor.scan(html);
+
+        blackhole.consume(contactExtractor.getEmails());
+        blackhole.consume(contactExtractor.getPhones());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContactExtractorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,94 @@
+package com.leads.leadsgen.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactExtractorTest {
+
+    private ContactExtractor scan(String... pages) {
+        ContactExtractor contactExtractor = new ContactExtractor();
+        for (String page : pages) {
+            contactExtractor.scan(page);
+        }
+        return contactExtractor;
+    }
+
+    @Test
+    public void testScan_EmailsAndPhones() {
+        ContactExtractor contactExtractor = scan("<html><p>Mail info@example.com or call 031-704 12 90.</p></html>");
+
+        assertEquals(List.of("info@example.com"), List.copyOf(contactExtractor.getEmails()));
+        assertEquals(List.of("031-704 12 90"), List.copyOf(contactExtractor.getPhones()));
+    }
+
+    @Test
+    public void testScan_SkipsScriptsStylesAndComments() {
+        ContactExtractor contactExtractor = scan(
+                "<script>var ids = [17120550241234, 0763230063]; var mail = 'dev@tracker.com';</script>" +
+                "<STYLE>.a{width:1200000px}</STYLE>" +
+                "<!-- old: 08-123 45 67 -->" +
+                "<p>0763230063</p>");
+
+        assertTrue(contactExtractor.getEmails().isEmpty());
+        assertEquals(List.of("0763230063"), List.copyOf(contactExtractor.getPhones()));
+    }
+
+    @Test
+    public void testScan_DecodesMailtoAndTelLinks() {
+        ContactExtractor contactExtractor = scan(
+                "<a href=\"mailto:sales%40example.com?subject=Hello\">Sales</a>" +
+                "<a href='tel:+46%2031%20704%2012%2090'>Call us</a>");
+
+        assertEquals(List.of("sales@example.com"), List.copyOf(contactExtractor.getEmails()));
+        assertEquals(List.of("+46 31 704 12 90"), List.copyOf(contactExtractor.getPhones()));
+    }
+
+    @Test
+    public void testScan_DeduplicatesAcrossPages() {
+        ContactExtractor contactExtractor = scan(
+                "<a href='tel:0763230063'>0763230063</a> Info@Example.com",
+                "<p>076-323 00 63 info@example.com</p>");
+
+        assertEquals(List.of("Info@Example.com"), List.copyOf(contactExtractor.getEmails()));
+        assertEquals(List.of("0763230063"), List.copyOf(contactExtractor.getPhones()));
+    }
+
+    @Test
+    public void testScan_RejectsNonPhoneNumbers() {
+        ContactExtractor contactExtractor = scan(
+                "<p>Order 12345, published 2024-02-11, id 1712055023918123456, size 1200px, tracking 07632300630763230063</p>" +
+                "<img src='logo@2x.png'>");
+
+        assertTrue(contactExtractor.getPhones().isEmpty());
+        assertTrue(contactExtractor.getEmails().isEmpty());
+    }
+
+    @Test
+    public void testScan_LongDigitRunsAreLinear() {
+        String html = "<p>" + "1234567890".repeat(50_000) + "</p>";
+
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(2), () -> scan(html));
+    }
+
+    @Test
+    public void testScan_Fixture() throws IOException {
+        String html;
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/pages/company-home.html")) {
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        ContactExtractor contactExtractor = scan(html);
+
+        assertEquals(
+                List.of("info@nordbygg-entreprenad.se", "offert@nordbygg-entreprenad.se", "faktura@nordbygg-entreprenad.se"),
+                List.copyOf(contactExtractor.getEmails()));
+        assertTrue(contactExtractor.getPhones().contains("070-555 83 21"));
+        assertFalse(contactExtractor.getPhones().contains("031-21 21 21"), "Commented out numbers should be skipped");
+    }
+}
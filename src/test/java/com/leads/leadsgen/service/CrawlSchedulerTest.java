@@ -0,0 +1,103 @@
+package com.leads.leadsgen.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CrawlSchedulerTest {
+
+    private CrawlScheduler crawlScheduler;
+
+    @AfterEach
+    void tearDown() {
+        crawlScheduler.shutdown();
+    }
+
+    @Test
+    public void testSubmit_RespectsGlobalAndPerHostLimits() throws Exception {
+        crawlScheduler = new CrawlScheduler(4, 2);
+
+        int tasks = 200;
+        CountDownLatch done = new CountDownLatch(tasks);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Map<String, AtomicInteger> runningPerHost = new ConcurrentHashMap<>();
+        AtomicInteger maxRunningPerHost = new AtomicInteger();
+
+        for (int i = 0; i < tasks; i++) {
+            String host = "example" + (i % 3) + ".com";
+            crawlScheduler.submit(host, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                AtomicInteger hostRunning = runningPerHost.computeIfAbsent(host, h -> new AtomicInteger());
+                maxRunningPerHost.accumulateAndGet(hostRunning.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                hostRunning.decrementAndGet();
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS), "All tasks should complete");
+        assertTrue(maxRunning.get() <= 4, "Global limit exceeded: " + maxRunning.get());
+        assertTrue(maxRunningPerHost.get() <= 2, "Per-host limit exceeded: " + maxRunningPerHost.get());
+
+        CrawlScheduler.Stats stats = awaitIdle();
+        assertEquals(0, stats.queueDepth());
+        assertEquals(tasks, stats.completedCrawls());
+    }
+
+    @Test
+    public void testSubmit_StartsJobsInFifoOrder() throws Exception {
+        crawlScheduler = new CrawlScheduler(1, 1);
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            int index = i;
+            crawlScheduler.submit("example" + i + ".com", () -> {
+                order.add(index);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+    }
+
+    @Test
+    public void testSubmit_FailingTaskReleasesSlot() throws Exception {
+        crawlScheduler = new CrawlScheduler(1, 1);
+
+        CountDownLatch done = new CountDownLatch(1);
+        crawlScheduler.submit("example.com", () -> {
+            throw new IllegalStateException("Mocked failure");
+        });
+        crawlScheduler.submit("example.com", done::countDown);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Second task should run after the first one failed");
+    }
+
+    private CrawlScheduler.Stats awaitIdle() throws InterruptedException {
+        CrawlScheduler.Stats stats = crawlScheduler.getStats();
+        for (int i = 0; i < 100 && stats.activeCrawls() > 0; i++) {
+            Thread.sleep(10);
+            stats = crawlScheduler.getStats();
+        }
+        return stats;
+    }
+}
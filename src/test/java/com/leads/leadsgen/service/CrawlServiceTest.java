@@ -1,25 +1,44 @@
 package com.leads.leadsgen.service;
 
+import com.leads.leadsgen.exception.CrawlerException;
+import com.leads.leadsgen.exception.HttpStatusException;
 import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.PageValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 public class CrawlServiceTest {
 
     private HttpClient httpClient;
+    private PageSnapshotStore snapshotStore;
     private CrawlService crawlService;
 
+    @TempDir
+    Path snapshotDir;
+
     @BeforeEach
     void setUp() {
         httpClient = mock(HttpClient.class);
-        crawlService = new CrawlService(httpClient);
+        snapshotStore = new PageSnapshotStore(snapshotDir, 16);
+        crawlService = new CrawlService(httpClient, snapshotStore);
     }
 
     private void assertAsset(Asset asset, Asset expectedAsset) {
@@ -42,20 +61,28 @@ public class CrawlServiceTest {
             if (shouldThrow) {
                 when(httpClient.get(requestUrl)).thenThrow(new Exception("Mocked exception for " + requestUrl));
                 when(httpClient.getHtml(requestUrl)).thenThrow(new Exception("Mocked exception for " + requestUrl));
+                when(httpClient.getStream(eq(requestUrl), any())).thenThrow(new Exception("Mocked exception for " + requestUrl));
+                when(httpClient.getConditional(eq(requestUrl), isNull(), isNull(), any())).thenThrow(new Exception("Mocked exception for " + requestUrl));
             } else {
                 String mockedResponse = responseMap.getOrDefault(requestUrl, "");
                 when(httpClient.get(requestUrl)).thenReturn(mockedResponse);
                 when(httpClient.getHtml(requestUrl)).thenReturn(Map.of(requestUrl, mockedResponse));
+                when(httpClient.getStream(eq(requestUrl), any())).thenAnswer(invocation -> toStream(mockedResponse));
+                when(httpClient.getConditional(eq(requestUrl), isNull(), isNull(), any())).thenReturn(new FetchResult(200, mockedResponse, null, null));
             }
         }
 
         return expectedAsset;
     }
 
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void testCrawl_RobotsTxtScenarios() throws Exception {
 
-        // Success: Unreachable robots.txt, valid sitemap
+        // Success: Missing robots.txt, valid sitemap
         Asset expectedAsset2 = arrangeTestCase(
                 "https://example2.com",
                 Map.of(
@@ -74,6 +101,28 @@ public class CrawlServiceTest {
                 ),
                 new Asset("example2.com", List.of("https://example2.com/about", "https://example2.com/contact", "https://example2.com"), List.of(), List.of(), null, null)
         );
+        doThrow(new HttpStatusException(404, "https://example2.com/robots.txt"))
+                .when(httpClient).getConditional(eq("https://example2.com/robots.txt"), isNull(), isNull(), any());
+
+        // Success: Unreachable robots.txt disallows everything, nothing is crawled until it can be read
+        Asset expectedAsset15 = arrangeTestCase(
+                "https://example15.com",
+                Map.of(
+                        "https://example15.com/sitemap.xml", false,
+                        "https://example15.com", false,
+                        "https://example15.com/about", false
+                ),
+                Map.of(
+                        "https://example15.com/sitemap.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?><urlset xmlns=\"https://www.sitemaps.org/schemas/sitemap/0.9\">" +
+                                "<url><loc>https://example15.com/about</loc></url>" +
+                                "</urlset>",
+                        "https://example15.com", "<a href=\"/about\">About</a>",
+                        "https://example15.com/about", "<html></html>"
+                ),
+                new Asset("example15.com", List.of(), List.of(), List.of(), null, null)
+        );
+        when(httpClient.getConditional(eq("https://example15.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(503, "https://example15.com/robots.txt"));
 
         // Success: Reachable robots.txt but invalid syntax, valid sitemap
         Asset expectedAsset3 = arrangeTestCase(
@@ -102,6 +151,55 @@ public class CrawlServiceTest {
 
         assertAsset(crawlService.crawl("https://example2.com"), expectedAsset2);
         assertAsset(crawlService.crawl("https://example3.com"), expectedAsset3);
+        Asset asset15 = crawlService.crawl("https://example15.com");
+        assertAsset(asset15, expectedAsset15);
+        assertTrue(asset15.isPartial(), "Asset should be marked partial until robots.txt can be read");
+        verify(httpClient, never()).getConditional(eq("https://example15.com"), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testCrawl_RobotsTxtDisallowsHomepage() throws Exception {
+        // Success: Homepage disallowed, allowed sitemap pages are still crawled
+        Asset expectedAsset16 = arrangeTestCase(
+                "https://example16.com",
+                Map.of(
+                        "https://example16.com/robots.txt", false,
+                        "https://example16.com/sitemap.xml", false,
+                        "https://example16.com", false,
+                        "https://example16.com/about", false
+                ),
+                Map.of(
+                        "https://example16.com/robots.txt", "User-agent: *\nDisallow: /$",
+                        "https://example16.com/sitemap.xml", "<?xml version=\"1.0\" encoding=\"UTF-8\"?><urlset xmlns=\"https://www.sitemaps.org/schemas/sitemap/0.9\">" +
+                                "<url><loc>https://example16.com/about</loc></url>" +
+                                "</urlset>",
+                        "https://example16.com", "<html>home@example16.com</html>",
+                        "https://example16.com/about", "<html></html>"
+                ),
+                new Asset("example16.com", List.of("https://example16.com/about"), List.of(), List.of(), null, null)
+        );
+
+        // Success: Everything disallowed, nothing is crawled
+        Asset expectedAsset17 = arrangeTestCase(
+                "https://example17.com",
+                Map.of(
+                        "https://example17.com/robots.txt", false,
+                        "https://example17.com", false
+                ),
+                Map.of(
+                        "https://example17.com/robots.txt", "User-agent: *\nDisallow: /",
+                        "https://example17.com", "<html>home@example17.com</html>"
+                ),
+                new Asset("example17.com", List.of(), List.of(), List.of(), null, null)
+        );
+
+        assertAsset(crawlService.crawl("https://example16.com"), expectedAsset16);
+
+        Asset asset17 = crawlService.crawl("https://example17.com");
+        assertAsset(asset17, expectedAsset17);
+        assertFalse(asset17.isPartial());
+        verify(httpClient, never()).getConditional(eq("https://example16.com"), isNull(), isNull(), any());
+        verify(httpClient, never()).getConditional(eq("https://example17.com"), isNull(), isNull(), any());
     }
 
     @Test
@@ -180,4 +278,149 @@ public class CrawlServiceTest {
         assertAsset(crawlService.crawl("https://example8.com"), expectedAsset2);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCrawl_FetchesPagesConcurrently() throws Exception {
+        StringBuilder sitemap = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><urlset xmlns=\"https://www.sitemaps.org/schemas/sitemap/0.9\">");
+        for (int i = 0; i < 8; i++) {
+            sitemap.append("<url><loc>https://example9.com/page").append(i).append("</loc></url>");
+        }
+        sitemap.append("</urlset>");
+
+        when(httpClient.getConditional(eq("https://example9.com/robots.txt"), isNull(), isNull(), any())).thenReturn(new FetchResult(200, "Sitemap: https://example9.com/sitemap.xml", null, null));
+        when(httpClient.getStream(eq("https://example9.com/sitemap.xml"), any())).thenAnswer(invocation -> toStream(sitemap.toString()));
+        when(httpClient.getConditional(startsWith("https://example9.com"), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            String requestUrl = invocation.getArgument(0);
+            return new FetchResult(200, "<html>" + requestUrl + "</html>", null, null);
+        });
+
+        long start = System.nanoTime();
+        Asset asset = crawlService.crawl("https://example9.com");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(9, asset.getHtmlContents().size(), "All pages should be fetched");
+        assertTrue(elapsedMs < 9 * 300, "Pages should be fetched concurrently, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void testCrawl_LargeGzippedSitemapIndex() throws Exception {
+        StringBuilder sitemap = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+        for (int i = 0; i < 5000; i++) {
+            sitemap.append("<url><loc>https://example10.com/product/").append(i).append("</loc></url>");
+        }
+        sitemap.append("</urlset>");
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(sitemap.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        when(httpClient.getStream(eq("https://example10.com/sitemap_index.xml"), any())).thenAnswer(invocation -> toStream(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">" +
+                        "<sitemap><loc>https://example10.com/products.xml.gz</loc></sitemap>" +
+                        "</sitemapindex>"));
+        when(httpClient.getStream(eq("https://example10.com/products.xml.gz"), any()))
+                .thenAnswer(invocation -> new ByteArrayInputStream(compressed.toByteArray()));
+        when(httpClient.getConditional(startsWith("https://example10.com"), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html></html>", null, null));
+        when(httpClient.getConditional(eq("https://example10.com/robots.txt"), isNull(), isNull(), any())).thenReturn(new FetchResult(200, "Sitemap: https://example10.com/sitemap_index.xml", null, null));
+
+        Asset asset = crawlService.crawl("https://example10.com");
+
+        // 20 sampled product pages plus the homepage
+        assertEquals(21, asset.getUrls().size());
+        assertTrue(asset.getUrls().stream().allMatch(url -> url.startsWith("https://example10.com")));
+        assertTrue(asset.getUrls().contains("https://example10.com"));
+    }
+
+    @Test
+    public void testCrawl_RevalidatesUnchangedPages() throws Exception {
+        String url = "https://example11.com";
+        when(httpClient.getConditional(eq(url + "/robots.txt"), isNull(), isNull(), any())).thenThrow(new HttpStatusException(404, url + "/robots.txt"));
+        when(httpClient.getStream(eq(url + "/sitemap.xml"), any())).thenThrow(new Exception("Mocked exception"));
+        when(httpClient.getHtml(url)).thenReturn(Map.of(url, ""));
+        when(httpClient.getConditional(eq(url), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html>info@example11.com</html>", "\"v1\"", null));
+        when(httpClient.getConditional(eq(url), eq("\"v1\""), isNull(), any()))
+                .thenReturn(new FetchResult(FetchResult.NOT_MODIFIED, null, "\"v1\"", null));
+
+        Map<String, PageValidator> validators = new ConcurrentHashMap<>();
+        crawlService.crawl(url, validators);
+
+        PageValidator validator = validators.get(url);
+        assertNotNull(validator, "Validator should be stored after the first crawl");
+        assertEquals("\"v1\"", validator.getEtag());
+        assertEquals("<html>info@example11.com</html>", snapshotStore.read(validator.getContentHash()));
+
+        Asset asset = crawlService.crawl(url, validators);
+
+        assertEquals("<html>info@example11.com</html>", asset.getHtmlContents().get(url), "Stored body should be reused on 304");
+        assertEquals(List.of("info@example11.com"), asset.getEmails());
+        verify(httpClient, times(1)).getConditional(eq(url), isNull(), isNull(), any());
+        verify(httpClient, times(1)).getConditional(eq(url), eq("\"v1\""), isNull(), any());
+    }
+
+    @Test
+    public void testCrawlWithTimeout_ReturnsPartialResult() throws Exception {
+        String url = "https://example12.com";
+        when(httpClient.getConditional(eq(url + "/robots.txt"), isNull(), isNull(), any())).thenReturn(new FetchResult(200, "Sitemap: https://example12.com/sitemap.xml", null, null));
+        when(httpClient.getStream(eq(url + "/sitemap.xml"), any())).thenAnswer(invocation -> toStream(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><urlset xmlns=\"https://www.sitemaps.org/schemas/sitemap/0.9\">" +
+                        "<url><loc>https://example12.com/contact</loc></url>" +
+                        "<url><loc>https://example12.com/slow</loc></url>" +
+                        "</urlset>"));
+        when(httpClient.getConditional(eq(url + "/contact"), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html>info@example12.com</html>", null, null));
+        when(httpClient.getConditional(eq(url), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "<html></html>", null, null));
+        when(httpClient.getConditional(eq(url + "/slow"), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return new FetchResult(200, "<html>slow@example12.com</html>", null, null);
+        });
+
+        long start = System.nanoTime();
+        Asset asset = crawlService.crawlWithTimeout(url, 1, TimeUnit.SECONDS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(asset.isPartial(), "Asset should be marked partial");
+        assertEquals(List.of("info@example12.com"), asset.getEmails(), "Pages fetched before the deadline should be kept");
+        assertEquals(2, asset.getHtmlContents().size());
+        assertTrue(elapsedMs < 5_000, "Crawl should stop at the deadline, took " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void testCrawlWithTimeout_NothingFetched() throws Exception {
+        String url = "https://example13.com";
+        when(httpClient.getConditional(eq(url + "/robots.txt"), isNull(), isNull(), any())).thenThrow(new HttpStatusException(404, url + "/robots.txt"));
+        when(httpClient.getStream(eq(url + "/sitemap.xml"), any())).thenThrow(new Exception("Mocked exception"));
+        when(httpClient.getConditional(eq(url), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Duration timeout = invocation.getArgument(3);
+            Thread.sleep(timeout.toMillis());
+            throw new HttpTimeoutException("Request timed out");
+        });
+
+        assertThrows(CrawlerException.Timeout.class,
+                () -> crawlService.crawlWithTimeout(url, 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCrawlWithTimeout_RobotsAndSitemapBoundedByDeadline() throws Exception {
+        String url = "https://example14.com";
+        when(httpClient.getConditional(eq(url + "/robots.txt"), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Duration timeout = invocation.getArgument(3);
+            Thread.sleep(timeout.toMillis());
+            throw new HttpTimeoutException("Request timed out");
+        });
+        when(httpClient.getStream(eq(url + "/sitemap.xml"), any())).thenThrow(new HttpTimeoutException("Request timed out"));
+
+        long start = System.nanoTime();
+        assertThrows(CrawlerException.Timeout.class,
+                () -> crawlService.crawlWithTimeout(url, 1, TimeUnit.SECONDS));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // The shared fetch keeps the robots timeout, only the wait for it is bounded by the crawl
+        verify(httpClient, timeout(1000)).getConditional(eq(url + "/robots.txt"), isNull(), isNull(), eq(Duration.ofSeconds(10)));
+        assertTrue(elapsedMs < 3_000, "Waiting for robots.txt should not outlive the crawl deadline, took " + elapsedMs + " ms");
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.leads.leadsgen.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkCheckServiceTest {
+
+    private HttpServer server;
+    private LinkCheckService linkCheckService;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ok", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/no-head", exchange -> {
+            requests.incrementAndGet();
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+            } else {
+                assertEquals("bytes=0-0", exchange.getRequestHeaders().getFirst("Range"));
+                exchange.sendResponseHeaders(206, 1);
+                exchange.getResponseBody().write('a');
+            }
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/flaky", exchange -> {
+            // The first request times out
+            if (requests.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        linkCheckService = new LinkCheckService(2000, 2, 60, 0, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        linkCheckService.close();
+    }
+
+    @Test
+    public void testCheckAll() {
+        Map<String, Boolean> results = linkCheckService.checkAll(List.of(baseUrl + "/ok", baseUrl + "/missing"));
+
+        assertFalse(results.get(baseUrl + "/ok"));
+        assertTrue(results.get(baseUrl + "/missing"));
+    }
+
+    @Test
+    public void testCheckAll_DeduplicatesLinks() {
+        linkCheckService.checkAll(List.of(baseUrl + "/ok", baseUrl + "/ok#top", baseUrl.toUpperCase().replace("HTTP://", "http://") + "/ok"));
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testCheckAll_CachesResultsAcrossCalls() {
+        linkCheckService.checkAll(List.of(baseUrl + "/ok"));
+        assertFalse(linkCheckService.isBroken(baseUrl + "/ok"));
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testCheckAll_FallsBackToRangedGet() {
+        assertFalse(linkCheckService.isBroken(baseUrl + "/no-head"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testCheckAll_UnreachableHostIsBroken() {
+        assertTrue(linkCheckService.isBroken("http://localhost:1/ok"));
+    }
+
+    @Test
+    public void testCheckAll_FailuresAreNotCachedLikeStatuses() {
+        LinkCheckService shortTimeout = new LinkCheckService(200, 2, 60, 0, 100);
+        try {
+            assertTrue(shortTimeout.isBroken(baseUrl + "/flaky"));
+            assertFalse(shortTimeout.isBroken(baseUrl + "/flaky"));
+            assertFalse(shortTimeout.isBroken(baseUrl + "/flaky"));
+            assertEquals(2, requests.get());
+        } finally {
+            shortTimeout.close();
+        }
+    }
+
+    @Test
+    public void testCheckAll_HostLimitIsSharedAcrossScans() throws Exception {
+        ExecutorService scans = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Map<String, Boolean>>> results = new ArrayList<>();
+            for (int scan = 0; scan < 3; scan++) {
+                List<String> urls = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    urls.add(baseUrl + "/slow?scan=" + scan + "&i=" + i);
+                }
+                results.add(scans.submit(() -> linkCheckService.checkAll(urls)));
+            }
+            for (Future<Map<String, Boolean>> result : results) {
+                assertFalse(result.get().containsValue(true));
+            }
+        } finally {
+            scans.shutdownNow();
+        }
+
+        assertEquals(2, maxRunning.get());
+    }
+}
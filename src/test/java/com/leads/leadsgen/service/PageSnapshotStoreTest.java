@@ -0,0 +1,69 @@
+package com.leads.leadsgen.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageSnapshotStoreTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void testPutAndGet() {
+        PageSnapshotStore store = new PageSnapshotStore(root, 16);
+        store.put("example.com", "https://example.com", "<html>v1</html>");
+
+        assertEquals("<html>v1</html>", store.get("example.com", "https://example.com"));
+        assertNull(store.get("example.com", "https://example.com/missing"));
+        assertNull(store.get("other.com", "https://example.com"), "Pages are keyed by domain and URL");
+    }
+
+    @Test
+    public void testPut_ReplacesSnapshot() {
+        PageSnapshotStore store = new PageSnapshotStore(root, 16);
+        store.put("example.com", "https://example.com", "<html>v1</html>");
+        store.put("example.com", "https://example.com", "<html>v2</html>");
+
+        assertEquals("<html>v2</html>", store.get("example.com", "https://example.com"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testPut_StoresIdenticalContentOnce() throws IOException {
+        PageSnapshotStore store = new PageSnapshotStore(root, 16);
+        String hash1 = store.put("example.com", "https://example.com/a", "<html>same</html>");
+        String hash2 = store.put("example.com", "https://example.com/b", "<html>same</html>");
+
+        assertEquals(hash1, hash2);
+        try (Stream<Path> files = Files.walk(root.resolve("objects"))) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void testIndex_ResizesAndSurvivesReopen() throws IOException {
+        PageSnapshotStore store = new PageSnapshotStore(root, 16);
+        for (int i = 0; i < 100; i++) {
+            store.put("example.com", "https://example.com/page" + i, "<html>" + i + "</html>");
+        }
+        store.close();
+
+        PageSnapshotStore reopened = new PageSnapshotStore(root, 16);
+        assertEquals(100, reopened.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("<html>" + i + "</html>", reopened.get("example.com", "https://example.com/page" + i));
+        }
+
+        Map<String, String> pages = reopened.getAll("example.com", List.of("https://example.com/page1", "https://example.com/missing"));
+        assertEquals(Map.of("https://example.com/page1", "<html>1</html>"), pages);
+    }
+}
@@ -0,0 +1,172 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.exception.HttpStatusException;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RobotsRulesTest {
+
+    @Test
+    public void testParse_PrefixRules() {
+        RobotsRules rules = RobotsRules.parse("""
+                User-agent: *
+                Disallow: /admin
+                Disallow: /private/
+                Allow: /private/public
+                """);
+
+        assertTrue(rules.isPresent());
+        assertTrue(rules.isAllowedUrl("https://example.com"));
+        assertTrue(rules.isAllowedUrl("https://example.com/about"));
+        assertFalse(rules.isAllowedUrl("https://example.com/admin"));
+        assertFalse(rules.isAllowedUrl("https://example.com/admin/users?page=2"));
+        assertFalse(rules.isAllowedUrl("https://example.com/private/file"));
+        assertTrue(rules.isAllowedUrl("https://example.com/private/public/file"));
+    }
+
+    @Test
+    public void testParse_WildcardRules() {
+        RobotsRules rules = RobotsRules.parse("""
+                User-agent: *
+                Disallow: /*.pdf$
+                Disallow: /*?sessionid=
+                Allow: /shop/*/details
+                Disallow: /shop/
+                """);
+
+        assertFalse(rules.isAllowed("/files/report.pdf"));
+        assertTrue(rules.isAllowed("/files/report.pdf.html"));
+        assertFalse(rules.isAllowed("/cart?sessionid=123"));
+        assertTrue(rules.isAllowed("/shop/shoes/details"));
+        assertFalse(rules.isAllowed("/shop/shoes"));
+    }
+
+    @Test
+    public void testParse_UserAgentGroups() {
+        String content = """
+                User-agent: Googlebot
+                Disallow: /
+
+                User-agent: leadsgen
+                User-agent: otherbot
+                Disallow: /contact
+                Crawl-delay: 2.5
+
+                User-agent: *
+                Disallow: /about
+                """;
+
+        RobotsRules ownRules = RobotsRules.parse(content);
+        assertTrue(ownRules.isAllowed("/about"));
+        assertFalse(ownRules.isAllowed("/contact"));
+        assertEquals(Duration.ofMillis(2500), ownRules.getCrawlDelay());
+
+        RobotsRules fallbackRules = RobotsRules.parse(content, "somebot");
+        assertFalse(fallbackRules.isAllowed("/about"));
+        assertTrue(fallbackRules.isAllowed("/contact"));
+        assertNull(fallbackRules.getCrawlDelay());
+    }
+
+    @Test
+    public void testParse_SitemapsCommentsAndEmptyDisallow() {
+        RobotsRules rules = RobotsRules.parse("""
+                # Comment
+                Sitemap: https://example.com/sitemap.xml
+                User-agent: *
+                Disallow: # Allow everything
+                Sitemap: https://example.com/news.xml
+                """);
+
+        assertEquals(List.of("https://example.com/sitemap.xml", "https://example.com/news.xml"), rules.getSitemaps());
+        assertTrue(rules.isAllowed("/anything"));
+    }
+
+    @Test
+    public void testParse_InvalidOrMissingContent() {
+        assertTrue(RobotsRules.parse("Invalid Robots Content").isAllowed("/"));
+        assertFalse(RobotsRules.parse(null).isPresent());
+        assertTrue(RobotsRules.missing().isAllowed("/admin"));
+        assertFalse(RobotsRules.unreachable().isAllowed("/"));
+    }
+
+    @Test
+    public void testRobotsService_FetchesOncePerHost() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenReturn(new FetchResult(200, "User-agent: *\nDisallow: /admin", null, null));
+
+        RobotsService robotsService = new RobotsService(httpClient);
+
+        assertFalse(robotsService.getRules("https://example.com").isAllowedUrl("https://example.com/admin"));
+        assertFalse(robotsService.getRules("https://example.com/about").isAllowedUrl("https://example.com/admin"));
+        assertTrue(robotsService.getRules("https://EXAMPLE.com/contact").isPresent());
+
+        verify(httpClient, times(1)).getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testRobotsService_ServerErrorDisallowsAllAndIsRetried() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(503, "https://example.com/robots.txt"))
+                .thenReturn(new FetchResult(200, "User-agent: *\nDisallow: /admin", null, null));
+
+        RobotsService robotsService = new RobotsService(httpClient, 60, 0, 100, 10000);
+
+        assertFalse(robotsService.getRules("https://example.com").isAllowedUrl("https://example.com/about"));
+        assertTrue(robotsService.getRules("https://example.com").isAllowedUrl("https://example.com/about"));
+        verify(httpClient, times(2)).getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testRobotsService_NetworkErrorDisallowsAll() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new SocketTimeoutException("Request timed out"));
+
+        RobotsRules rules = new RobotsService(httpClient).getRules("https://example.com");
+
+        assertFalse(rules.isPresent());
+        assertFalse(rules.isAllowedUrl("https://example.com/"));
+    }
+
+    @Test
+    public void testRobotsService_ClientErrorAllowsAllAndIsCached() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any()))
+                .thenThrow(new HttpStatusException(404, "https://example.com/robots.txt"));
+
+        RobotsService robotsService = new RobotsService(httpClient, 60, 0, 100, 10000);
+
+        assertTrue(robotsService.getRules("https://example.com").isAllowedUrl("https://example.com/admin"));
+        assertTrue(robotsService.getRules("https://example.com").isAllowedUrl("https://example.com/admin"));
+        verify(httpClient, times(1)).getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testRobotsService_CallerNearDeadlineDoesNotCacheFailure() throws Exception {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(httpClient.getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), eq(Duration.ofSeconds(5))))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(300);
+                    return new FetchResult(200, "User-agent: *\nDisallow: /admin", null, null);
+                });
+
+        RobotsService robotsService = new RobotsService(httpClient, 60, 300, 100, 5000);
+
+        // Gives up waiting, the fetch it started keeps its own timeout
+        assertFalse(robotsService.getRules("https://example.com", Duration.ofMillis(50)).isAllowedUrl("https://example.com/about"));
+
+        RobotsRules rules = robotsService.getRules("https://example.com", Duration.ofSeconds(5));
+        assertTrue(rules.isPresent());
+        assertTrue(rules.isAllowedUrl("https://example.com/about"));
+        verify(httpClient, times(1)).getConditional(eq("https://example.com/robots.txt"), isNull(), isNull(), any());
+    }
+}
@@ -0,0 +1,100 @@
+package com.leads.leadsgen.service;
+
+import com.leads.leadsgen.model.Asset;
+import com.leads.leadsgen.model.ScanHistory;
+import com.leads.leadsgen.model.ScanReport;
+import com.leads.leadsgen.repository.AssetRepository;
+import com.leads.leadsgen.repository.ScanFindingRepository;
+import com.leads.leadsgen.repository.ScanHistoryRepository;
+import com.leads.leadsgen.repository.ScanReportRepository;
+import com.leads.leadsgen.scanner.Scanner;
+import com.leads.leadsgen.scanner.ScannerRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ScanServiceTest {
+
+    private final AssetRepository assetRepository = mock(AssetRepository.class);
+    private final ScanReportRepository scanReportRepository = mock(ScanReportRepository.class);
+    private final ScanHistoryRepository scanHistoryRepository = mock(ScanHistoryRepository.class);
+    private final SseService sseService = mock(SseService.class);
+
+    private final Scanner scanner = new Scanner("TestScanner") {
+        @Override
+        public ScanReport scan(Asset asset) {
+            return new ScanReport("Report for " + asset.getDomain(), asset, false);
+        }
+    };
+
+    private ScanService scanService(int chunkSize) {
+        return new ScanService(
+                assetRepository,
+                scanReportRepository,
+                mock(ScanFindingRepository.class),
+                scanHistoryRepository,
+                new ScannerRegistry(List.of(scanner)),
+                sseService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                chunkSize
+        );
+    }
+
+    private Asset asset(long id, String domain) {
+        Asset asset = new Asset(domain, List.of(), List.of(), List.of(), null, Map.of());
+        ReflectionTestUtils.setField(asset, "id", id);
+        return asset;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testScanDomains_LoadsAssetsOnceAndSavesInChunks() {
+        List<Asset> assets = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            assets.add(asset(i, "example" + i + ".com"));
+        }
+        when(assetRepository.findByDomainIn(anyCollection())).thenReturn(assets);
+
+        List<String> domains = assets.stream().map(Asset::getDomain).toList();
+        scanService(2).scanDomains(domains, List.of("TestScanner"), true);
+
+        verify(assetRepository, times(1)).findByDomainIn(anyCollection());
+        verify(assetRepository, never()).findByDomain(any());
+
+        ArgumentCaptor<List<ScanReport>> saved = ArgumentCaptor.forClass(List.class);
+        verify(scanReportRepository, times(3)).saveAll(saved.capture());
+        assertEquals(5, saved.getAllValues().stream().mapToInt(List::size).sum());
+        saved.getAllValues().forEach(chunk -> assertTrue(chunk.size() <= 2));
+
+        ArgumentCaptor<List<ScanHistory>> history = ArgumentCaptor.forClass(List.class);
+        verify(scanHistoryRepository, times(3)).saveAll(history.capture());
+        assertEquals(5, history.getAllValues().stream().mapToInt(List::size).sum());
+        history.getAllValues().forEach(chunk -> chunk.forEach(scan -> assertEquals("TestScanner", scan.getScanner())));
+        verify(assetRepository, never()).save(any());
+        verify(assetRepository, times(3)).updateLastReportIds(anyCollection());
+        verify(sseService, times(5)).broadcastStatus(any(), eq("Scanned"), any());
+    }
+
+    @Test
+    public void testScanDomains_MissingAssetIsReported() {
+        when(assetRepository.findByDomainIn(anyCollection())).thenReturn(List.of());
+
+        scanService(10).scanDomains(List.of("missing.com"), List.of("TestScanner"), true);
+
+        verify(sseService).broadcastStatus(eq("missing.com"), eq("Error"), any());
+        verify(scanReportRepository, never()).saveAll(any());
+    }
+}
@@ -0,0 +1,74 @@
+package com.leads.leadsgen.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SitemapParserTest {
+
+    private static InputStream toStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParse_UrlsetAndIndex() throws Exception {
+        List<String> pages = new ArrayList<>();
+        List<String> sitemaps = new ArrayList<>();
+
+        SitemapParser.parse(toStream("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                  <url><loc> https://example.com/about </loc><lastmod>2024-01-01</lastmod></url>
+                  <url><loc>https://example.com/blog.xml</loc></url>
+                </urlset>
+                """), pages::add, sitemaps::add);
+
+        SitemapParser.parse(toStream("""
+                <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+                  <sitemap><loc>https://example.com/sitemap-pages</loc></sitemap>
+                </sitemapindex>
+                """), pages::add, sitemaps::add);
+
+        assertEquals(List.of("https://example.com/about"), pages);
+        assertEquals(List.of("https://example.com/blog.xml", "https://example.com/sitemap-pages"), sitemaps);
+    }
+
+    @Test
+    public void testParse_InvalidContent() {
+        assertThrows(XMLStreamException.class, () -> SitemapParser.parse(toStream("Invalid Sitemap Content"), url -> {
+        }, url -> {
+        }));
+    }
+
+    @Test
+    public void testSampler_KeepsFirstUrlsInOrder() {
+        SitemapSampler sampler = new SitemapSampler(3, false);
+        for (int i = 0; i < 10; i++) {
+            sampler.accept("https://example.com/" + i);
+        }
+
+        assertEquals(List.of("https://example.com/0", "https://example.com/1", "https://example.com/2"), sampler.getUrls());
+        assertEquals(10, sampler.getSeen());
+    }
+
+    @Test
+    public void testSampler_SamplesAcrossAllUrls() {
+        SitemapSampler sampler = new SitemapSampler(50, true);
+        for (int i = 0; i < 50_000; i++) {
+            sampler.accept("https://example.com/" + i);
+        }
+
+        List<String> urls = sampler.getUrls();
+        assertEquals(50, urls.size());
+        assertEquals(50, urls.stream().distinct().count());
+        assertTrue(urls.stream().anyMatch(url -> Integer.parseInt(url.substring(url.lastIndexOf('/') + 1)) >= 50),
+                "Sample should not be limited to the first URLs");
+    }
+}
@@ -0,0 +1,331 @@
+package com.leads.leadsgen.service.dns;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DnsResolverTest {
+
+    private StubDnsServer server;
+    private DnsResolver resolver;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubDnsServer();
+        server.mx.put("example.com", List.of(new Object[]{20, "mx2.example.com"}, new Object[]{10, "mx1.example.com"}));
+        server.txt.put("example.com", List.of(List.of("v=spf1 include:_spf.example.net ", "-all"), List.of("google-site-verification=abc")));
+        server.txt.put("_dmarc.example.com", List.of(List.of("v=DMARC1; p=reject")));
+        resolver = new DnsResolver(server.address(), Duration.ofMillis(200), 1, 3600, 300, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        resolver.close();
+        server.close();
+    }
+
+    @Test
+    public void testLookupMx_OrderedByPreference() throws Exception {
+        assertEquals(List.of("mx1.example.com", "mx2.example.com"), resolver.lookupMx("example.com").get());
+    }
+
+    @Test
+    public void testLookupTxt_JoinsStrings() throws Exception {
+        List<String> records = resolver.lookupTxt("example.com").get();
+
+        assertEquals(List.of("v=spf1 include:_spf.example.net -all", "google-site-verification=abc"), records);
+    }
+
+    @Test
+    public void testLookup_NxDomainIsCachedAsNegative() throws Exception {
+        assertTrue(resolver.lookupTxt("_dmarc.missing.example").get().isEmpty());
+        assertTrue(resolver.lookupTxt("_dmarc.missing.example").get().isEmpty());
+
+        DnsResponse response = resolver.query("_dmarc.missing.example", DnsMessage.TYPE_TXT).get();
+        assertEquals(DnsResponse.NXDOMAIN, response.rcode());
+        assertEquals(60, response.ttlSeconds());
+        assertEquals(1, server.hits.get());
+    }
+
+    @Test
+    public void testLookup_CachedAndSharedByConcurrentCallers() throws Exception {
+        List<CompletableFuture<List<String>>> lookups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lookups.add(resolver.lookupMx("EXAMPLE.com."));
+        }
+        for (CompletableFuture<List<String>> lookup : lookups) {
+            assertEquals(List.of("mx1.example.com", "mx2.example.com"), lookup.get());
+        }
+
+        assertEquals(1, server.hits.get());
+    }
+
+    @Test
+    public void testLookup_ManyNamesConcurrently() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            server.mx.put("host" + i + ".example", List.<Object[]>of(new Object[]{10, "mx.host" + i + ".example"}));
+        }
+
+        List<CompletableFuture<List<String>>> lookups = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            lookups.add(resolver.lookupMx("host" + i + ".example"));
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(List.of("mx.host" + i + ".example"), lookups.get(i).get());
+        }
+    }
+
+    @Test
+    public void testLookup_TimesOutAfterRetries() {
+        server.silent.add("slow.example");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> resolver.lookupMx("slow.example").get());
+
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+        assertEquals(2, server.hits.get());
+    }
+
+    @Test
+    public void testLookup_MalformedNameFailsWithoutBlockingOthers() throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> resolver.lookupMx("example..com").get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertEquals(List.of("mx1.example.com", "mx2.example.com"), resolver.lookupMx("example.com").get(1, TimeUnit.SECONDS));
+        assertEquals(1, server.hits.get());
+    }
+
+    @Test
+    public void testLookup_TruncatedAnswerIsAskedAgainOverTcp() throws Exception {
+        String spf = "v=spf1 include:_spf%d.example.net ";
+        List<List<String>> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            records.add(List.of(spf.formatted(i) + "-all"));
+        }
+        server.txt.put("large.example", records);
+        server.truncated.add("large.example");
+
+        List<String> answer = resolver.lookupTxt("large.example").get(2, TimeUnit.SECONDS);
+
+        assertEquals(40, answer.size());
+        assertEquals(1, server.tcpHits.get());
+    }
+
+    @Test
+    public void testLookup_TruncatedAnswerWithoutTcpFailsAndIsNotCached() throws Exception {
+        server.txt.put("large.example", List.of(List.of("v=spf1 -all")));
+        server.truncated.add("large.example");
+        server.tcpRefused = true;
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> resolver.lookupTxt("large.example").get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+
+        server.tcpRefused = false;
+        assertEquals(List.of("v=spf1 -all"), resolver.lookupTxt("large.example").get(2, TimeUnit.SECONDS));
+        assertEquals(2, server.hits.get());
+    }
+
+    @Test
+    public void testLookup_NewQueriesWaitWhilePendingIsFull() throws Exception {
+        resolver.close();
+        resolver = new DnsResolver(server.address(), Duration.ofMillis(200), 1, 3600, 300, 1000, 1);
+        server.silent.add("slow.example");
+
+        CompletableFuture<List<String>> slow = resolver.lookupMx("slow.example");
+        CompletableFuture<List<String>> fast = resolver.lookupMx("example.com");
+
+        assertEquals(List.of("mx1.example.com", "mx2.example.com"), fast.get(2, TimeUnit.SECONDS));
+        assertTrue(slow.isCompletedExceptionally(), "The second query is only sent once the first gave up");
+    }
+
+    /**
+     * Answers MX and TXT queries from maps, NXDOMAIN with an SOA for unknown names and
+     * nothing at all for silent names. Answers for truncated names have the TC flag set
+     * over UDP and are only given in full over TCP on the same port.
+     */
+    private static class StubDnsServer {
+
+        final Map<String, List<Object[]>> mx = new ConcurrentHashMap<>();
+        final Map<String, List<List<String>>> txt = new ConcurrentHashMap<>();
+        final List<String> silent = new ArrayList<>();
+        final List<String> truncated = new ArrayList<>();
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger tcpHits = new AtomicInteger();
+        volatile boolean tcpRefused;
+
+        private final DatagramSocket socket;
+        private final ServerSocket tcpSocket;
+
+        StubDnsServer() throws IOException {
+            socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            tcpSocket = new ServerSocket(socket.getLocalPort(), 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this::serve);
+            thread.setDaemon(true);
+            thread.start();
+            Thread tcpThread = new Thread(this::serveTcp);
+            tcpThread.setDaemon(true);
+            tcpThread.start();
+        }
+
+        InetSocketAddress address() {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        }
+
+        void close() throws IOException {
+            socket.close();
+            tcpSocket.close();
+        }
+
+        private void serveTcp() {
+            while (!tcpSocket.isClosed()) {
+                try (Socket connection = tcpSocket.accept()) {
+                    tcpHits.incrementAndGet();
+                    if (tcpRefused) {
+                        continue;
+                    }
+                    DataInputStream in = new DataInputStream(connection.getInputStream());
+                    byte[] message = new byte[in.readUnsignedShort()];
+                    in.readFully(message);
+
+                    ByteBuffer query = ByteBuffer.wrap(message);
+                    int id = query.getShort(0) & 0xffff;
+                    query.position(12);
+                    String name = DnsMessage.readName(query);
+                    int type = query.getShort() & 0xffff;
+
+                    byte[] response = respond(id, name, type, false);
+                    DataOutputStream out = new DataOutputStream(connection.getOutputStream());
+                    out.writeShort(response.length);
+                    out.write(response);
+                    out.flush();
+                } catch (IOException e) {
+                    if (tcpSocket.isClosed()) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void serve() {
+            byte[] buffer = new byte[4096];
+            while (!socket.isClosed()) {
+                try {
+                    DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                    socket.receive(packet);
+                    hits.incrementAndGet();
+
+                    ByteBuffer query = ByteBuffer.wrap(packet.getData(), 0, packet.getLength());
+                    int id = query.getShort(0) & 0xffff;
+                    query.position(12);
+                    String name = DnsMessage.readName(query);
+                    int type = query.getShort() & 0xffff;
+                    assertEquals(1, query.getShort(10), "query carries an EDNS0 OPT record");
+
+                    if (silent.contains(name)) {
+                        continue;
+                    }
+
+                    byte[] response = respond(id, name, type, truncated.contains(name));
+                    socket.send(new DatagramPacket(response, response.length, packet.getSocketAddress()));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private byte[] respond(int id, String name, int type, boolean truncate) {
+            boolean known = mx.containsKey(name) || txt.containsKey(name);
+            List<byte[]> answers = new ArrayList<>();
+            if (truncate) {
+                // What fits of the answer is dropped, as servers do for a TC response
+                ByteBuffer response = ByteBuffer.allocate(512);
+                response.putShort((short) id);
+                response.putShort((short) 0x8380);
+                response.putShort((short) 1).putShort((short) 0).putShort((short) 0).putShort((short) 0);
+                DnsMessage.encodeName(response, name);
+                response.putShort((short) type);
+                response.putShort((short) DnsMessage.CLASS_IN);
+                return slice(response);
+            }
+            if (type == DnsMessage.TYPE_MX) {
+                for (Object[] record : mx.getOrDefault(name, List.of())) {
+                    ByteBuffer rdata = ByteBuffer.allocate(512);
+                    rdata.putShort((short) (int) (Integer) record[0]);
+                    DnsMessage.encodeName(rdata, (String) record[1]);
+                    answers.add(slice(rdata));
+                }
+            } else if (type == DnsMessage.TYPE_TXT) {
+                for (List<String> record : txt.getOrDefault(name, List.of())) {
+                    ByteBuffer rdata = ByteBuffer.allocate(512);
+                    for (String string : record) {
+                        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                        rdata.put((byte) bytes.length).put(bytes);
+                    }
+                    answers.add(slice(rdata));
+                }
+            }
+
+            ByteBuffer response = ByteBuffer.allocate(4096);
+            response.putShort((short) id);
+            response.putShort((short) (0x8180 | (known ? 0 : DnsResponse.NXDOMAIN)));
+            response.putShort((short) 1);
+            response.putShort((short) answers.size());
+            response.putShort((short) (known ? 0 : 1));
+            response.putShort((short) 0);
+            DnsMessage.encodeName(response, name);
+            response.putShort((short) type);
+            response.putShort((short) DnsMessage.CLASS_IN);
+
+            for (byte[] rdata : answers) {
+                response.putShort((short) 0xc00c);
+                response.putShort((short) type);
+                response.putShort((short) DnsMessage.CLASS_IN);
+                response.putInt(300);
+                response.putShort((short) rdata.length);
+                response.put(rdata);
+            }
+
+            if (!known) {
+                response.putShort((short) 0xc00c);
+                response.putShort((short) DnsMessage.TYPE_SOA);
+                response.putShort((short) DnsMessage.CLASS_IN);
+                response.putInt(600);
+                response.putShort((short) 22);
+                response.put((byte) 0).put((byte) 0);
+                response.putInt(1).putInt(7200).putInt(3600).putInt(1209600).putInt(60);
+            }
+            return slice(response);
+        }
+
+        private static byte[] slice(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.position()];
+            buffer.flip().get(bytes);
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.leads.leadsgen.service.impl;
+
+import com.leads.leadsgen.service.FetchResult;
+import com.leads.leadsgen.service.HttpClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class CoalescingHttpClientTest {
+
+    private final HttpClient delegate = mock(HttpClient.class);
+    private final CoalescingHttpClient httpClient = new CoalescingHttpClient(delegate);
+
+    @Test
+    public void testGet_SharesRequestsForEquivalentUrls() throws Exception {
+        when(delegate.get(anyString())).thenReturn("User-agent: *");
+
+        assertEquals("User-agent: *", httpClient.get("https://example.com/robots.txt"));
+        assertEquals("User-agent: *", httpClient.get("HTTPS://Example.com:443/robots.txt#top"));
+
+        verify(delegate, times(1)).get(anyString());
+    }
+
+    @Test
+    public void testGetConditional_JoinsInFlightRequest() throws Exception {
+        when(delegate.getConditional(anyString(), isNull(), isNull(), any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new FetchResult(200, "<html></html>", null, null);
+        });
+
+        List<Future<FetchResult>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(() -> httpClient.getConditional("https://example.com", null, null, Duration.ofSeconds(5))));
+            }
+        }
+
+        for (Future<FetchResult> result : results) {
+            assertEquals("<html></html>", result.get().body());
+        }
+        verify(delegate, times(1)).getConditional(anyString(), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testGetConditional_DifferentValidatorsAreSeparateRequests() throws Exception {
+        when(delegate.getConditional(anyString(), any(), any(), any()))
+                .thenReturn(new FetchResult(200, "<html></html>", "\"v1\"", null));
+
+        httpClient.getConditional("https://example.com", null, null, Duration.ofSeconds(5));
+        httpClient.getConditional("https://example.com", "\"v1\"", null, Duration.ofSeconds(5));
+
+        assertEquals(2, httpClient.getRequestCount());
+    }
+
+    @Test
+    public void testGet_SharesFailures() throws Exception {
+        when(delegate.get(anyString())).thenThrow(new Exception("Mocked exception"));
+
+        assertThrows(Exception.class, () -> httpClient.get("https://example.com/robots.txt"));
+        assertThrows(Exception.class, () -> httpClient.get("https://example.com/robots.txt"));
+
+        verify(delegate, times(1)).get(anyString());
+    }
+}
@@ -0,0 +1,100 @@
+package com.leads.leadsgen.service.impl;
+
+import com.leads.leadsgen.service.FetchResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientImplTest {
+
+    private HttpServer server;
+    private final HttpClientImpl httpClient = new HttpClientImpl();
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/page", exchange -> {
+            byte[] body = "<html></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/robots.txt", exchange -> {
+            byte[] body = "User-agent: *\r\nDisallow: /private\nAllow: /caf\u00e9\n".getBytes(StandardCharsets.ISO_8859_1);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=ISO-8859-1");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/trickle", exchange -> {
+            // One byte every 100ms, each read is quick but the whole body takes seconds
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 50; i++) {
+                    out.write('a');
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (Exception e) {
+                // Client gave up
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetConditional() throws Exception {
+        FetchResult result = httpClient.getConditional(baseUrl + "/page", null, null, Duration.ofSeconds(2));
+
+        assertEquals(200, result.statusCode());
+        assertEquals("<html></html>", result.body());
+    }
+
+    @Test
+    public void testGetConditional_KeepsLineBreaksAndCharset() throws Exception {
+        FetchResult result = httpClient.getConditional(baseUrl + "/robots.txt", null, null, Duration.ofSeconds(2));
+
+        assertEquals("User-agent: *\r\nDisallow: /private\nAllow: /caf\u00e9\n", result.body());
+        assertEquals(result.body(), httpClient.get(baseUrl + "/robots.txt"));
+    }
+
+    @Test
+    public void testGetConditional_TimeoutBoundsWholeRequest() {
+        long start = System.nanoTime();
+
+        assertThrows(SocketTimeoutException.class, () -> httpClient.getConditional(baseUrl + "/trickle", null, null, Duration.ofMillis(500)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void testGetStream_TimeoutBoundsReadingBody() throws Exception {
+        long start = System.nanoTime();
+
+        try (InputStream body = httpClient.getStream(baseUrl + "/trickle", Duration.ofMillis(500))) {
+            assertThrows(SocketTimeoutException.class, body::readAllBytes);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+}
@@ -0,0 +1,162 @@
+package com.leads.leadsgen.service.impl;
+
+import com.leads.leadsgen.service.FetchResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PooledHttpClientImplTest {
+
+    private HttpServer server;
+    private PooledHttpClientImpl httpClient;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/robots.txt", exchange -> {
+            byte[] body = "User-agent: *\nDisallow: /admin\n".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip", exchange -> {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write("<html>åäö</html>".getBytes(StandardCharsets.UTF_8));
+            }
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, compressed.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(compressed.toByteArray());
+            }
+        });
+        server.createContext("/large", exchange -> {
+            byte[] body = "a".repeat(1000).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/etag", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "<html>v1</html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/trickle", exchange -> {
+            // One byte every 100ms, each read is quick but the whole body takes seconds
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 50; i++) {
+                    out.write('a');
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (Exception e) {
+                // Client gave up
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        httpClient = new PooledHttpClientImpl(2000, 2000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGet_KeepsNewlines() throws Exception {
+        assertEquals("User-agent: *\nDisallow: /admin\n", httpClient.get(baseUrl + "/robots.txt"));
+    }
+
+    @Test
+    public void testGet_DecompressesGzip() throws Exception {
+        assertEquals("<html>åäö</html>", httpClient.get(baseUrl + "/gzip"));
+    }
+
+    @Test
+    public void testGet_TruncatesLargeBodies() throws Exception {
+        assertEquals(100, httpClient.get(baseUrl + "/large").length());
+    }
+
+    @Test
+    public void testGet_ThrowsOnErrorStatus() {
+        assertThrows(Exception.class, () -> httpClient.get(baseUrl + "/missing"));
+        assertThrows(Exception.class, () -> httpClient.getAsync(baseUrl + "/missing").join());
+    }
+
+    @Test
+    public void testGetHtmlAsync() {
+        Map<String, String> html = httpClient.getHtmlAsync(baseUrl + "/gzip").join();
+        assertEquals(Map.of(baseUrl + "/gzip", "<html>åäö</html>"), html);
+    }
+
+    @Test
+    public void testGetConditional_NotModified() throws Exception {
+        FetchResult first = httpClient.getConditional(baseUrl + "/etag", null, null, Duration.ofSeconds(2));
+        assertEquals(200, first.statusCode());
+        assertEquals("<html>v1</html>", first.body());
+        assertEquals("\"v1\"", first.etag());
+
+        FetchResult second = httpClient.getConditional(baseUrl + "/etag", first.etag(), null, Duration.ofSeconds(2));
+        assertTrue(second.isNotModified());
+        assertNull(second.body());
+    }
+
+    @Test
+    public void testGetConditional_ThrowsWhenDeadlinePassed() {
+        assertThrows(Exception.class, () -> httpClient.getConditional(baseUrl + "/etag", null, null, Duration.ZERO));
+    }
+
+    @Test
+    public void testGetConditional_TimeoutBoundsWholeRequest() {
+        long start = System.nanoTime();
+
+        assertThrows(SocketTimeoutException.class, () -> httpClient.getConditional(baseUrl + "/trickle", null, null, Duration.ofMillis(500)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void testGetStream_TimeoutBoundsReadingBody() throws Exception {
+        long start = System.nanoTime();
+
+        try (InputStream body = httpClient.getStream(baseUrl + "/trickle", Duration.ofMillis(500))) {
+            assertThrows(SocketTimeoutException.class, body::readAllBytes);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+}
@@ -0,0 +1,43 @@
+package com.leads.leadsgen.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AhoCorasickTest {
+
+    private final AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "his", "hers", "GTM-"));
+
+    @Test
+    public void testFindAll() {
+        assertEquals(Set.of("he", "she", "hers"), matcher.findAll("ushers"));
+    }
+
+    @Test
+    public void testFindAll_IgnoresCase() {
+        assertEquals(Set.of("GTM-"), matcher.findAll("<script>id = 'gtm-ABC123'</script>"));
+    }
+
+    @Test
+    public void testFindAll_OverlappingPrefixes() {
+        AhoCorasick overlapping = new AhoCorasick(List.of("aab", "ab", "b"));
+
+        assertEquals(Set.of("aab", "ab", "b"), overlapping.findAll("aaab"));
+    }
+
+    @Test
+    public void testContainsAny() {
+        assertTrue(matcher.containsAny("this"));
+        assertFalse(matcher.containsAny("nothing to see hére"));
+        assertFalse(matcher.containsAny(""));
+    }
+
+    @Test
+    public void testNonAsciiResetsMatch() {
+        assertFalse(matcher.containsAny("shé"));
+        assertTrue(matcher.containsAny("åshe"));
+    }
+}